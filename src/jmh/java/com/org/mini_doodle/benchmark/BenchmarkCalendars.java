@@ -0,0 +1,45 @@
+package com.org.mini_doodle.benchmark;
+
+import com.org.mini_doodle.repository.projection.SlotBounds;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic calendars: {@code slots} slots of 15 to 120 minutes spread over one year, where a
+ * fraction {@code overlapDensity} of them start inside the previous slot instead of after it.
+ */
+final class BenchmarkCalendars {
+
+    static final OffsetDateTime YEAR_START = OffsetDateTime.parse("2025-01-01T00:00:00Z");
+    static final long YEAR_MINUTES = 365L * 24 * 60;
+
+    private BenchmarkCalendars() {
+    }
+
+    static List<SlotBounds> generate(int slots, double overlapDensity) {
+        SplittableRandom random = new SplittableRandom(42);
+        long spacing = Math.max(1, YEAR_MINUTES / slots);
+        List<SlotBounds> result = new ArrayList<>(slots);
+        long previousStart = 0;
+        long previousLength = 0;
+        for (int i = 0; i < slots; i++) {
+            long length = 15 + random.nextLong(106);
+            long start = i > 0 && random.nextDouble() < overlapDensity
+                    ? previousStart + random.nextLong(Math.max(1, previousLength))
+                    : i * spacing;
+            result.add(new SlotBounds((long) i, YEAR_START.plusMinutes(start), YEAR_START.plusMinutes(start + length)));
+            previousStart = start;
+            previousLength = length;
+        }
+        return result;
+    }
+
+    static List<SlotBounds> within(List<SlotBounds> slots, OffsetDateTime from, OffsetDateTime to) {
+        return slots.stream()
+                .filter(s -> s.startTime().isBefore(to) && s.endTime().isAfter(from))
+                .toList();
+    }
+}
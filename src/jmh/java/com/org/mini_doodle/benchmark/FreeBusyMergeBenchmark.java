@@ -0,0 +1,87 @@
+package com.org.mini_doodle.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.org.mini_doodle.domain.SlotStatus;
+import com.org.mini_doodle.dto.response.FreeBusyResponse;
+import com.org.mini_doodle.observability.SchedulingMetrics;
+import com.org.mini_doodle.repository.CalendarRepository;
+import com.org.mini_doodle.repository.SlotRepository;
+import com.org.mini_doodle.repository.projection.CalendarInterval;
+import com.org.mini_doodle.service.AvailabilityService;
+import com.org.mini_doodle.service.CalendarCache;
+import com.org.mini_doodle.service.FreeBusyCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AvailabilityService#freeBusyForUser} on a cache miss: the calendar is invalidated before every call, so
+ * each one runs the real pipeline from busy rows to merged busy and free intervals. The slot repository is a stub
+ * that returns the busy rows of the queried range, which leaves the database out of the measurement.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FreeBusyMergeBenchmark {
+
+    private static final Long USER_ID = 1L;
+    private static final Long CALENDAR_ID = 1L;
+
+    @Param({"100", "10000", "100000"})
+    int slots;
+
+    @Param({"0.0", "0.5"})
+    double overlapDensity;
+
+    @Param({"7", "365"})
+    int rangeDays;
+
+    private OffsetDateTime from;
+    private OffsetDateTime to;
+    private FreeBusyCache freeBusyCache;
+    private AvailabilityService availabilityService;
+
+    @Setup
+    public void setup() {
+        // the per-computation info line would otherwise be written to the console on every call
+        ((Logger) LoggerFactory.getLogger(AvailabilityService.class)).setLevel(Level.WARN);
+
+        from = BenchmarkCalendars.YEAR_START;
+        to = from.plusDays(rangeDays);
+        List<CalendarInterval> busy = BenchmarkCalendars.within(BenchmarkCalendars.generate(slots, overlapDensity), from, to)
+                .stream()
+                .map(slot -> new CalendarInterval(CALENDAR_ID, slot.startTime(), slot.endTime()))
+                .toList();
+
+        SlotRepository slotRepository = stub(SlotRepository.class, "findIntervalsByCalendarIds", busy);
+        CalendarRepository calendarRepository = stub(CalendarRepository.class, "findIdByOwnerId", Optional.of(CALENDAR_ID));
+        freeBusyCache = new FreeBusyCache(1000, Duration.ofMinutes(5));
+        availabilityService = new AvailabilityService(slotRepository, new CalendarCache(calendarRepository, 1000),
+                freeBusyCache, new SchedulingMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Benchmark
+    public FreeBusyResponse freeBusy() {
+        freeBusyCache.invalidate(CALENDAR_ID);
+        return availabilityService.freeBusyForUser(USER_ID, from, to);
+    }
+
+    private static <T> T stub(Class<T> repository, String method, Object result) {
+        return repository.cast(Proxy.newProxyInstance(repository.getClassLoader(), new Class<?>[]{repository},
+                (proxy, invoked, args) -> {
+                    if (invoked.getName().equals(method)) return result;
+                    throw new UnsupportedOperationException(invoked.getName());
+                }));
+    }
+}
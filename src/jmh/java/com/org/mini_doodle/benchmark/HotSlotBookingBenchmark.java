@@ -0,0 +1,82 @@
+package com.org.mini_doodle.benchmark;
+
+import com.org.mini_doodle.domain.Meeting;
+import com.org.mini_doodle.dto.request.ScheduleMeetingRequest;
+import com.org.mini_doodle.exception.OverlapConflictException;
+import com.org.mini_doodle.observability.SchedulingMetrics;
+import com.org.mini_doodle.service.BookingCoordinator;
+import com.org.mini_doodle.service.BookingMode;
+import com.org.mini_doodle.service.MeetingService;
+import com.org.mini_doodle.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 128 concurrent bookers through {@link BookingCoordinator} in direct mode. Every {@code bookersPerSlot}
+ * consecutive bookings target the same slot, so with 128 the whole crowd races for one slot at a time. The
+ * meeting service is a stub that parks for {@code transactionMicros} to stand in for the booking transaction
+ * and lets the first claim of a slot win. Run with {@code -bm thrpt} for bookings per second and
+ * {@code -bm sample} for the p99 latency.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(128)
+@State(Scope.Benchmark)
+public class HotSlotBookingBenchmark {
+
+    @Param({"1", "128"})
+    int bookersPerSlot;
+
+    @Param({"200"})
+    long transactionMicros;
+
+    private final AtomicLong bookings = new AtomicLong();
+    private BookingCoordinator coordinator;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        Set<Long> claimed = ConcurrentHashMap.newKeySet();
+        long parkNanos = TimeUnit.MICROSECONDS.toNanos(transactionMicros);
+        MeetingService meetingService = new MeetingService(null, null, null, null, null, null, null) {
+            @Override
+            public Meeting schedule(Long userId, ScheduleMeetingRequest req) {
+                LockSupport.parkNanos(parkNanos);
+                if (!claimed.add(req.slotId())) throw new OverlapConflictException("Slot not available");
+                return Meeting.builder().id(req.slotId()).build();
+            }
+        };
+        UserService userService = new UserService(null, null, null, null) {
+            @Override
+            public Optional<Long> findPersonalCalendarId(Long userId) {
+                return Optional.of(1L);
+            }
+        };
+        coordinator = new BookingCoordinator(meetingService, null, userService,
+                new SchedulingMetrics(new SimpleMeterRegistry()), BookingMode.DIRECT, 256,
+                Duration.ofSeconds(5), 100_000, Duration.ofMinutes(1));
+        bookings.set(0);
+    }
+
+    @Benchmark
+    public boolean book() {
+        long slotId = bookings.getAndIncrement() / bookersPerSlot;
+        try {
+            coordinator.schedule(1L, new ScheduleMeetingRequest(slotId, "Standup", null, List.of(2L)));
+            return true;
+        } catch (OverlapConflictException ex) {
+            return false;
+        }
+    }
+}
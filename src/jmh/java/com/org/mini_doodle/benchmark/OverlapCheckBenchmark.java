@@ -0,0 +1,62 @@
+package com.org.mini_doodle.benchmark;
+
+import com.org.mini_doodle.repository.SlotRepository;
+import com.org.mini_doodle.repository.projection.SlotBounds;
+import com.org.mini_doodle.service.SlotIntervalIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The overlap check behind {@code SlotService.ensureNoOverlaps}: random 30 minute probes against a loaded
+ * calendar in {@link SlotIntervalIndex}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OverlapCheckBenchmark {
+
+    private static final int PROBES = 1024;
+
+    @Param({"100", "10000", "100000"})
+    int slots;
+
+    @Param({"0.0", "0.5"})
+    double overlapDensity;
+
+    private SlotIntervalIndex index;
+    private OffsetDateTime[] probeStarts;
+    private int next;
+
+    @Setup
+    public void setup() {
+        List<SlotBounds> bounds = BenchmarkCalendars.generate(slots, overlapDensity);
+        SlotRepository repository = (SlotRepository) Proxy.newProxyInstance(SlotRepository.class.getClassLoader(),
+                new Class<?>[]{SlotRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findBoundsByCalendarId")) return bounds;
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        index = new SlotIntervalIndex(repository, 1, Duration.ofDays(1));
+
+        SplittableRandom random = new SplittableRandom(7);
+        probeStarts = new OffsetDateTime[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probeStarts[i] = BenchmarkCalendars.YEAR_START.plusMinutes(random.nextLong(BenchmarkCalendars.YEAR_MINUTES));
+        }
+        index.overlaps(1L, probeStarts[0], probeStarts[0].plusMinutes(30), null);
+    }
+
+    @Benchmark
+    public boolean overlaps() {
+        OffsetDateTime start = probeStarts[next++ & (PROBES - 1)];
+        return index.overlaps(1L, start, start.plusMinutes(30), null);
+    }
+}
@@ -0,0 +1,68 @@
+package com.org.mini_doodle.benchmark;
+
+import com.org.mini_doodle.domain.*;
+import com.org.mini_doodle.dto.response.MeetingResponse;
+import com.org.mini_doodle.dto.response.SlotResponse;
+import com.org.mini_doodle.repository.projection.SlotView;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DTO mapping on the response path: a page of slots from entities and from projections, and meetings with a
+ * varying number of participants.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseMappingBenchmark {
+
+    @Param({"100", "10000"})
+    int pageSize;
+
+    @Param({"1", "50"})
+    int participants;
+
+    private List<Slot> slots;
+    private List<SlotView> views;
+    private Meeting meeting;
+
+    @Setup
+    public void setup() {
+        OffsetDateTime start = BenchmarkCalendars.YEAR_START;
+        slots = new ArrayList<>(pageSize);
+        views = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            OffsetDateTime s = start.plusMinutes(30L * i);
+            slots.add(Slot.builder().id((long) i).status(SlotStatus.FREE).startTime(s).endTime(s.plusMinutes(30)).build());
+            views.add(new SlotView((long) i, SlotStatus.FREE, s, s.plusMinutes(30)));
+        }
+        List<Participant> attendees = new ArrayList<>(participants);
+        for (int i = 0; i < participants; i++) {
+            attendees.add(Participant.builder().id((long) i).user(User.builder().id((long) i).build()).build());
+        }
+        meeting = Meeting.builder().id(1L).slot(slots.getFirst()).title("Sync").participants(attendees).build();
+    }
+
+    @Benchmark
+    public void slotsFromEntities(Blackhole blackhole) {
+        for (Slot slot : slots) blackhole.consume(SlotResponse.from(slot));
+    }
+
+    @Benchmark
+    public void slotsFromViews(Blackhole blackhole) {
+        for (SlotView view : views) blackhole.consume(SlotResponse.from(view));
+    }
+
+    @Benchmark
+    public MeetingResponse meeting() {
+        return MeetingResponse.from(meeting);
+    }
+}
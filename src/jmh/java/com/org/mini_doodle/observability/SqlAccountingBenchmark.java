@@ -0,0 +1,76 @@
+package com.org.mini_doodle.observability;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.*;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the JDBC proxy behind {@code mini-doodle.diagnostics.sql-accounting}: one query reading {@code rows} rows
+ * from in-memory H2 inside an accounted request, with the proxy off, proxying statements only, and proxying result
+ * sets as well so every {@code next()} is counted. H2 answers from memory, so the proxy's share here is an upper
+ * bound for a networked database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SqlAccountingBenchmark {
+
+    private static final int TABLE_ROWS = 1000;
+
+    @Param({"off", "statements", "resultSets"})
+    String accounting;
+
+    @Param({"1", "100", "1000"})
+    int rows;
+
+    private Connection connection;
+
+    @Setup
+    public void setup() throws SQLException {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:sql-accounting-benchmark;DB_CLOSE_DELAY=-1");
+        DataSource dataSource = switch (accounting) {
+            case "off" -> h2;
+            case "statements" -> SqlAccountingDataSourceWrapper.wrap("benchmark", h2, false);
+            default -> SqlAccountingDataSourceWrapper.wrap("benchmark", h2, true);
+        };
+        connection = dataSource.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists items (id int primary key, name varchar(64))");
+            statement.execute("delete from items");
+            statement.execute("insert into items select x, 'item ' || x from system_range(1, " + TABLE_ROWS + ")");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public long query() throws SQLException {
+        RequestSqlStats.begin();
+        try (PreparedStatement select = connection.prepareStatement("select id, name from items where id <= ?")) {
+            select.setInt(1, rows);
+            long sum = 0;
+            try (ResultSet resultSet = select.executeQuery()) {
+                while (resultSet.next()) {
+                    sum += resultSet.getInt(1) + resultSet.getString(2).length();
+                }
+            }
+            return sum;
+        } finally {
+            RequestSqlStats.end();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.org.mini_doodle.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcomes of one endpoint during the measured window. Latency is taken from the intended send time, so time
+ * spent queued behind a slow server counts against it instead of being hidden (coordinated omission).
+ */
+final class EndpointStats {
+
+    private final String name;
+    private final Histogram latencyMicros = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+    private final LongAdder ok = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    void record(long intendedNanos, int status) {
+        latencyMicros.recordValue(Math.min(latencyMicros.getHighestTrackableValue(),
+                TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedNanos)));
+        if (status >= 200 && status < 300) ok.increment();
+        else if (status == 409) conflicts.increment();
+        else errors.increment();
+    }
+
+    void recordFailure(long intendedNanos) {
+        record(intendedNanos, -1);
+    }
+
+    void recordDropped() {
+        dropped.increment();
+    }
+
+    static String header() {
+        return String.format("%-12s %9s %9s %9s %9s %9s %9s %9s %9s %9s",
+                "endpoint", "requests", "ok/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "conflict%", "error%", "dropped");
+    }
+
+    String row(double seconds) {
+        long total = ok.sum() + conflicts.sum() + errors.sum();
+        return String.format("%-12s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f %9d",
+                name, total, ok.sum() / seconds,
+                millis(latencyMicros.getValueAtPercentile(50)),
+                millis(latencyMicros.getValueAtPercentile(99)),
+                millis(latencyMicros.getValueAtPercentile(99.9)),
+                millis(latencyMicros.getMaxValue()),
+                percent(conflicts.sum(), total), percent(errors.sum(), total), dropped.sum());
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static double percent(long part, long total) {
+        return total == 0 ? 0 : 100.0 * part / total;
+    }
+}
@@ -0,0 +1,230 @@
+package com.org.mini_doodle.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.org.mini_doodle.MiniDoodleApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Starts the application on an embedded Postgres, seeds users and recurring slots over HTTP, then drives slot
+ * creation, free/busy reads and bookings at independent open-model (Poisson) arrival rates from virtual threads
+ * and prints per-endpoint latency percentiles and conflict/error rates.
+ *
+ * <p>Settings are system properties: {@code loadtest.users}, {@code loadtest.rate} (requests per second per
+ * endpoint), {@code loadtest.duration} and {@code loadtest.warmup} (seconds), {@code loadtest.hotBookingRatio}
+ * (share of bookings aimed at a handful of hot slots), {@code loadtest.maxInFlight} and
+ * {@code loadtest.virtualThreads} (serve requests on virtual threads), {@code loadtest.pinningDiagnostics} and
+ * {@code loadtest.bookingMode} ({@code direct} or {@code pipelined}).
+ */
+public final class LoadHarness {
+
+    private static final LocalDate SEED_START = LocalDate.parse("2030-01-07");
+    private static final int SEED_WEEKS = 8;
+    private static final int HOT_SLOTS = 8;
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final List<Long> userIds = new ArrayList<>();
+    private final List<long[]> freeSlots = new ArrayList<>();
+    private final AtomicInteger nextFreeSlot = new AtomicInteger();
+
+    private LoadHarness(HttpClient client, int port) {
+        this.client = client;
+        this.baseUrl = "http://localhost:" + port;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int users = Integer.getInteger("loadtest.users", 50);
+        int rate = Integer.getInteger("loadtest.rate", 200);
+        int duration = Integer.getInteger("loadtest.duration", 30);
+        int warmup = Integer.getInteger("loadtest.warmup", 5);
+        double hotBookingRatio = Double.parseDouble(System.getProperty("loadtest.hotBookingRatio", "0.1"));
+        int maxInFlight = Integer.getInteger("loadtest.maxInFlight", 10_000);
+        boolean virtualThreads = Boolean.getBoolean("loadtest.virtualThreads");
+        boolean pinningDiagnostics = Boolean.getBoolean("loadtest.pinningDiagnostics");
+        String bookingMode = System.getProperty("loadtest.bookingMode", "direct");
+
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.start();
+             ConfigurableApplicationContext app = new SpringApplicationBuilder(MiniDoodleApplication.class).run(
+                     "--server.port=0",
+                     "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                     "--spring.datasource.username=postgres",
+                     "--spring.datasource.password=",
+                     "--spring.jpa.show-sql=false",
+                     "--spring.threads.virtual.enabled=" + virtualThreads,
+                     "--mini-doodle.diagnostics.pinned-threads=" + pinningDiagnostics,
+                     "--mini-doodle.booking.mode=" + bookingMode,
+                     "--logging.level.root=WARN");
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+            // Requests are sent from virtual threads; the client keeps its own executor for connection I/O.
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            LoadHarness harness = new LoadHarness(client, port);
+
+            long seedStart = System.nanoTime();
+            harness.seed(users);
+            System.out.printf("Seeded %d users and %d slots in %.1fs%n", users, harness.freeSlots.size(),
+                    (System.nanoTime() - seedStart) / 1e9);
+
+            Map<String, Supplier<HttpRequest>> scenarios = new LinkedHashMap<>();
+            scenarios.put("create-slot", harness::createSlotRequest);
+            scenarios.put("free-busy", harness::freeBusyRequest);
+            scenarios.put("book", () -> harness.bookingRequest(hotBookingRatio));
+            Semaphore inFlight = new Semaphore(maxInFlight);
+            long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmup);
+            long end = measureFrom + TimeUnit.SECONDS.toNanos(duration);
+
+            List<EndpointStats> results = new ArrayList<>();
+            List<Thread> drivers = new ArrayList<>();
+            scenarios.forEach((name, request) -> {
+                EndpointStats stats = new EndpointStats(name);
+                results.add(stats);
+                drivers.add(Thread.ofPlatform().name("arrivals-" + name).start(() ->
+                        harness.drive(executor, request, rate, measureFrom, end, inFlight, stats)));
+            });
+            for (Thread driver : drivers) driver.join();
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+
+            System.out.printf("%nOpen model, %d req/s per endpoint, %ds measured after %ds warmup, %s threads, %s booking%n",
+                    rate, duration, warmup, virtualThreads ? "virtual" : "platform", bookingMode);
+            System.out.println(EndpointStats.header());
+            results.forEach(stats -> System.out.println(stats.row(duration)));
+        }
+    }
+
+    /**
+     * Issues requests at exponentially distributed intervals regardless of how fast earlier ones complete.
+     * Requests sent before {@code measureFrom} are warmup and are not recorded.
+     */
+    private void drive(ExecutorService executor, Supplier<HttpRequest> requests, int rate, long measureFrom, long end,
+                       Semaphore inFlight, EndpointStats stats) {
+        SplittableRandom random = new SplittableRandom();
+        double meanIntervalNanos = 1e9 / rate;
+        long intended = System.nanoTime();
+        while (intended < end) {
+            intended += (long) (-Math.log(1 - random.nextDouble()) * meanIntervalNanos);
+            long wait = intended - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+
+            boolean measured = intended >= measureFrom;
+            if (!inFlight.tryAcquire()) {
+                if (measured) stats.recordDropped();
+                continue;
+            }
+            long sendAt = intended;
+            executor.execute(() -> {
+                try {
+                    HttpResponse<Void> response = client.send(requests.get(), HttpResponse.BodyHandlers.discarding());
+                    if (measured) stats.record(sendAt, response.statusCode());
+                } catch (Exception ex) {
+                    if (measured) stats.recordFailure(sendAt);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+    }
+
+    private void seed(int users) throws IOException, InterruptedException {
+        for (int i = 0; i < users; i++) {
+            String name = "Load User " + letters(i);
+            JsonNode user = send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/users?email=load" + i
+                    + "@example.com&name=" + name.replace(' ', '+'))).POST(HttpRequest.BodyPublishers.noBody()).build());
+            userIds.add(user.get("id").asLong());
+        }
+        String recurring = """
+                {"startDate":"%s","endDate":"%s","daysOfWeek":["MONDAY","TUESDAY","WEDNESDAY","THURSDAY","FRIDAY"],
+                 "dayStart":"09:00","dayEnd":"17:00","timeZone":"UTC","durationMinutes":30}"""
+                .formatted(SEED_START, SEED_START.plusWeeks(SEED_WEEKS).minusDays(1));
+        for (Long userId : userIds) {
+            JsonNode slots = send(json(baseUrl + "/api/users/" + userId + "/slots/recurring", recurring).build());
+            slots.forEach(slot -> freeSlots.add(new long[]{userId, slot.get("id").asLong()}));
+        }
+        Collections.shuffle(freeSlots, new Random(42));
+    }
+
+    private HttpRequest createSlotRequest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        OffsetDateTime start = OffsetDateTime.of(2031, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC)
+                .plusMinutes(30L * random.nextInt(365 * 48));
+        return json(baseUrl + "/api/users/" + randomUser() + "/slots",
+                "{\"startTime\":\"" + start + "\",\"durationMinutes\":30}").build();
+    }
+
+    private HttpRequest freeBusyRequest() {
+        OffsetDateTime from = SEED_START.plusWeeks(ThreadLocalRandom.current().nextInt(SEED_WEEKS))
+                .atStartOfDay().atOffset(ZoneOffset.UTC);
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/users/" + randomUser() + "/availability/free-busy?from="
+                + from + "&to=" + from.plusWeeks(1))).timeout(Duration.ofSeconds(30)).GET().build();
+    }
+
+    private HttpRequest bookingRequest(double hotBookingRatio) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long[] slot = random.nextDouble() < hotBookingRatio
+                ? freeSlots.get(random.nextInt(HOT_SLOTS))
+                : freeSlots.get(HOT_SLOTS + Math.floorMod(nextFreeSlot.getAndIncrement(), freeSlots.size() - HOT_SLOTS));
+        return json(baseUrl + "/api/users/" + slot[0] + "/meetings",
+                "{\"slotId\":" + slot[1] + ",\"title\":\"Load test\",\"participantUserIds\":[" + randomUser() + "]}").build();
+    }
+
+    private long randomUser() {
+        return userIds.get(ThreadLocalRandom.current().nextInt(userIds.size()));
+    }
+
+    private JsonNode send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException("Seeding failed: " + request.uri() + " -> " + response.statusCode() + " " + response.body());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private static HttpRequest.Builder json(String url, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private static String letters(int i) {
+        StringBuilder sb = new StringBuilder();
+        do {
+            sb.append((char) ('a' + i % 26));
+            i /= 26;
+        } while (i > 0);
+        return sb.toString();
+    }
+}
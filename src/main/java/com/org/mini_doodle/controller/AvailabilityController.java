@@ -1,12 +1,15 @@
 package com.org.mini_doodle.controller;
 
-import com.org.mini_doodle.domain.TimeInterval;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.org.mini_doodle.dto.response.BucketAvailability;
+import com.org.mini_doodle.dto.response.FreeBusyEntry;
 import com.org.mini_doodle.dto.response.FreeBusyResponse;
 import com.org.mini_doodle.service.AvailabilityService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.Duration;
 import java.time.OffsetDateTime;
@@ -19,9 +22,11 @@ import java.util.List;
 public class AvailabilityController {
 
     private final AvailabilityService availabilityService;
+    private final ObjectMapper objectMapper;
 
-    public AvailabilityController(AvailabilityService availabilityService) {
+    public AvailabilityController(AvailabilityService availabilityService, ObjectMapper objectMapper) {
         this.availabilityService = availabilityService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping("/free-busy")
@@ -35,8 +40,19 @@ public class AvailabilityController {
             return ResponseEntity.ok(response);
         }
         Duration bucket = getParse(granularity);
-        List<TimeInterval> intervals = availabilityService.bucketedForUser(userId, from, to, bucket);
-        return ResponseEntity.ok(intervals);
+        List<BucketAvailability> buckets = availabilityService.bucketedForUser(userId, from, to, bucket);
+        return ResponseEntity.ok(buckets);
+    }
+
+    @GetMapping("/free-busy/export")
+    public ResponseEntity<StreamingResponseBody> exportAvailability(@PathVariable Long userId,
+                                                                    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+                                                                    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to) {
+        log.info("Exporting free/busy availability for user={} from {} to {}", userId, from, to);
+        Long calendarId = availabilityService.calendarIdForExport(userId, from, to);
+        StreamingResponseBody body = NdjsonStreams.<FreeBusyEntry>of(objectMapper,
+                sink -> availabilityService.streamFreeBusy(calendarId, from, to, sink));
+        return ResponseEntity.ok().contentType(NdjsonStreams.APPLICATION_NDJSON).body(body);
     }
 
     private Duration getParse(String granularity) {
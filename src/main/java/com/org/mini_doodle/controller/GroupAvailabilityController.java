@@ -0,0 +1,48 @@
+package com.org.mini_doodle.controller;
+
+import com.org.mini_doodle.domain.TimeInterval;
+import com.org.mini_doodle.service.AvailabilityService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/availability")
+public class GroupAvailabilityController {
+
+    private final AvailabilityService availabilityService;
+
+    public GroupAvailabilityController(AvailabilityService availabilityService) {
+        this.availabilityService = availabilityService;
+    }
+
+    @GetMapping("/common-free")
+    public ResponseEntity<List<TimeInterval>> getCommonFree(@RequestParam List<Long> userIds,
+                                                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+                                                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+                                                            @RequestParam(defaultValue = "PT0S") String minDuration) {
+        log.info("Fetching common free time for {} users from {} to {}, minDuration={}", userIds.size(), from, to, minDuration);
+        Duration min = parseMinDuration(minDuration);
+        return ResponseEntity.ok(availabilityService.commonFreeForUsers(userIds, from, to, min));
+    }
+
+    private Duration parseMinDuration(String minDuration) {
+        try {
+            Duration duration = Duration.parse(minDuration);
+            if (duration.isNegative()) {
+                throw new IllegalArgumentException("minDuration must not be negative: " + minDuration);
+            }
+            return duration;
+        }
+        catch (DateTimeParseException ex){
+            throw new IllegalArgumentException("Invalid minDuration format. Expected ISO-8601 duration (e.g., PT30M, PT1H): " + minDuration, ex);
+        }
+    }
+}
@@ -2,7 +2,8 @@ package com.org.mini_doodle.controller;
 
 import com.org.mini_doodle.dto.request.ScheduleMeetingRequest;
 import com.org.mini_doodle.dto.response.MeetingResponse;
-import com.org.mini_doodle.service.MeetingService;
+import com.org.mini_doodle.service.BookingCoordinator;
+import com.org.mini_doodle.service.IdempotencyStore;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -14,16 +15,20 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/api/users/{userId}/meetings")
 public class UserMeetingController {
 
-    private final MeetingService meetingService;
+    private final BookingCoordinator bookingCoordinator;
+    private final IdempotencyStore idempotencyStore;
 
-    public UserMeetingController(MeetingService meetingService) {
-        this.meetingService = meetingService;
+    public UserMeetingController(BookingCoordinator bookingCoordinator, IdempotencyStore idempotencyStore) {
+        this.bookingCoordinator = bookingCoordinator;
+        this.idempotencyStore = idempotencyStore;
     }
 
     @PostMapping
-    public ResponseEntity<MeetingResponse> schedule(@PathVariable Long userId, @Valid @RequestBody ScheduleMeetingRequest req) {
+    public ResponseEntity<MeetingResponse> schedule(@PathVariable Long userId, @Valid @RequestBody ScheduleMeetingRequest req,
+                                                    @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
         log.info("Booking meeting for slot id={} by user={} with title='{}'", req.slotId(), userId, req.title());
-        var meeting = meetingService.schedule(userId, req);
-        return ResponseEntity.status(HttpStatus.CREATED).body(MeetingResponse.from(meeting));
+        var meeting = idempotencyStore.execute("schedule-meeting", userId, idempotencyKey, req,
+                () -> MeetingResponse.from(bookingCoordinator.schedule(userId, req)));
+        return ResponseEntity.status(HttpStatus.CREATED).body(meeting);
     }
 }
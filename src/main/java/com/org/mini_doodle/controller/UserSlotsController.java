@@ -1,9 +1,15 @@
 package com.org.mini_doodle.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.org.mini_doodle.domain.SlotStatus;
 import com.org.mini_doodle.dto.request.CreateSlotRequest;
 import com.org.mini_doodle.dto.request.ModifySlotRequest;
+import com.org.mini_doodle.dto.request.RecurringSlotRequest;
+import com.org.mini_doodle.dto.response.SlotChangesResponse;
 import com.org.mini_doodle.dto.response.SlotResponse;
+import com.org.mini_doodle.dto.response.SlotScrollResponse;
+import com.org.mini_doodle.service.IdempotencyStore;
+import com.org.mini_doodle.service.SlotChangeFeed;
 import com.org.mini_doodle.service.SlotService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
@@ -12,10 +18,14 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 
 @Slf4j
 @RestController
@@ -23,17 +33,33 @@ import java.time.OffsetDateTime;
 public class UserSlotsController {
 
     private final SlotService slotService;
+    private final IdempotencyStore idempotencyStore;
+    private final SlotChangeFeed slotChangeFeed;
+    private final ObjectMapper objectMapper;
 
 
-    public UserSlotsController(SlotService slotService) {
+    public UserSlotsController(SlotService slotService, IdempotencyStore idempotencyStore, SlotChangeFeed slotChangeFeed,
+                               ObjectMapper objectMapper) {
         this.slotService = slotService;
+        this.idempotencyStore = idempotencyStore;
+        this.slotChangeFeed = slotChangeFeed;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
-    public ResponseEntity<SlotResponse> create(@PathVariable Long userId, @Valid @RequestBody CreateSlotRequest req) {
+    public ResponseEntity<SlotResponse> create(@PathVariable Long userId, @Valid @RequestBody CreateSlotRequest req,
+                                               @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
         log.info("Creating slot for user={} from {} for {} minutes", userId, req.startTime(), req.durationMinutes());
-        var slot = slotService.createSlotForUser(userId, req);
-        return ResponseEntity.status(HttpStatus.CREATED).body(SlotResponse.from(slot));
+        var slot = idempotencyStore.execute("create-slot", userId, idempotencyKey, req,
+                () -> SlotResponse.from(slotService.createSlotForUser(userId, req)));
+        return ResponseEntity.status(HttpStatus.CREATED).body(slot);
+    }
+
+    @PostMapping("/recurring")
+    public ResponseEntity<List<SlotResponse>> createRecurring(@PathVariable Long userId, @Valid @RequestBody RecurringSlotRequest req) {
+        log.info("Creating recurring slots for user={} from {} to {} on {}", userId, req.startDate(), req.endDate(), req.daysOfWeek());
+        var slots = slotService.createRecurringSlotsForUser(userId, req);
+        return ResponseEntity.status(HttpStatus.CREATED).body(slots.stream().map(SlotResponse::from).toList());
     }
 
     @GetMapping
@@ -48,6 +74,38 @@ public class UserSlotsController {
         return ResponseEntity.ok(responsePages);
     }
 
+    @GetMapping("/scroll")
+    public ResponseEntity<SlotScrollResponse> scroll(@PathVariable Long userId, @RequestParam OffsetDateTime from, @RequestParam OffsetDateTime to,
+                                                     @RequestParam(required = false) String status, @RequestParam(required = false) String cursor,
+                                                     @RequestParam(defaultValue = "100") int size) {
+        log.info("Scrolling slots for user={} from {} to {}, status={}, cursor={}", userId, from, to, status, cursor);
+        SlotStatus slotStatus = status == null ? null : SlotStatus.valueOf(status);
+        return ResponseEntity.ok(slotService.scrollSlotsForUser(userId, from, to, slotStatus, cursor, size));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@PathVariable Long userId, @RequestParam OffsetDateTime from, @RequestParam OffsetDateTime to) {
+        log.info("Exporting slots for user={} from {} to {}", userId, from, to);
+        Long calendarId = slotService.calendarIdForExport(userId, from, to);
+        StreamingResponseBody body = NdjsonStreams.<SlotResponse>of(objectMapper,
+                sink -> slotService.exportSlots(calendarId, from, to, view -> sink.accept(SlotResponse.from(view))));
+        return ResponseEntity.ok().contentType(NdjsonStreams.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<SlotChangesResponse> changes(@PathVariable Long userId, @RequestParam(required = false) Long since,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(defaultValue = "500") int limit) {
+        log.info("Fetching slot changes for user={} since={}, cursor={}, limit={}", userId, since, cursor, limit);
+        return ResponseEntity.ok(slotService.changesForUser(userId, since, cursor, limit));
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@PathVariable Long userId) {
+        log.info("Subscribing to slot changes for user={}", userId);
+        return slotChangeFeed.subscribe(userId);
+    }
+
     @PatchMapping("/{slotId}")
     public ResponseEntity<SlotResponse> modify(@PathVariable Long userId, @PathVariable Long slotId, @Valid @RequestBody ModifySlotRequest req) {
         log.info("Modifying slot id={} for user={}", slotId, userId);
@@ -0,0 +1,3 @@
+package com.org.mini_doodle.domain;
+
+public enum BucketState {FREE, BUSY, PARTIAL}
@@ -2,6 +2,7 @@ package com.org.mini_doodle.domain;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.List;
 
@@ -23,4 +24,8 @@ public class Calendar {
     private String name;
     @OneToMany(mappedBy = "calendar", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Slot> slots;
+    /** Advanced once, at commit, by every transaction that writes slots of this calendar, only by bulk update. */
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    private long changeSeq;
 }
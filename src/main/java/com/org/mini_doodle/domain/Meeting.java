@@ -14,7 +14,8 @@ import java.util.List;
 @Table(name = "meetings")
 public class Meeting {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "meeting_seq")
+    @SequenceGenerator(name = "meeting_seq", sequenceName = "meeting_seq", allocationSize = 50)
     private Long id;
     @OneToOne(optional = false)
     @JoinColumn(name = "slot_id", unique = true)
@@ -12,7 +12,8 @@ import lombok.*;
 @Table(name = "participants", uniqueConstraints = @UniqueConstraint(columnNames = {"meeting_id", "user_id"}))
 public class Participant {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "participant_seq")
+    @SequenceGenerator(name = "participant_seq", sequenceName = "participant_seq", allocationSize = 50)
     private Long id;
     @ManyToOne(optional = false)
     @JoinColumn(name = "meeting_id")
@@ -11,10 +11,13 @@ import java.time.OffsetDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "slots", indexes = @Index(name = "idx_calendar_start", columnList = "calendar_id,startTime"))
+@Table(name = "slots", indexes = {
+        @Index(name = "idx_calendar_start", columnList = "calendar_id,startTime"),
+        @Index(name = "idx_calendar_id", columnList = "calendar_id,id")})
 public class Slot {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "slot_seq")
+    @SequenceGenerator(name = "slot_seq", sequenceName = "slot_seq", allocationSize = 50)
     private Long id;
     @ManyToOne(optional = false)
     @JoinColumn(name = "calendar_id")
@@ -0,0 +1,25 @@
+package com.org.mini_doodle.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * The last change of a slot for delta sync: the calendar change sequence of the last transaction that wrote or
+ * deleted it. A deleted slot keeps its row so delta sync can report the deletion. Slot ids come from a sequence and
+ * are never reused, so the slot id is the key.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "slot_changes", indexes = @Index(name = "idx_slot_change_calendar_seq", columnList = "calendarId,changeSeq,slotId"))
+public class SlotChange {
+    @Id
+    private Long slotId;
+    @Column(nullable = false)
+    private Long calendarId;
+    @Column(nullable = false)
+    private long changeSeq;
+}
@@ -0,0 +1,24 @@
+package com.org.mini_doodle.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Set;
+
+/**
+ * Back-to-back slots of {@code durationMinutes} between {@code dayStart} and {@code dayEnd} on every
+ * matching day from {@code startDate} to {@code endDate} inclusive, in the given time zone.
+ */
+public record RecurringSlotRequest(@NotNull(message = "Start date is required") LocalDate startDate,
+                                   @NotNull(message = "End date is required") LocalDate endDate,
+                                   @NotEmpty(message = "At least one day of week is required") Set<DayOfWeek> daysOfWeek,
+                                   @NotNull(message = "Day start is required") LocalTime dayStart,
+                                   @NotNull(message = "Day end is required") LocalTime dayEnd,
+                                   @NotNull(message = "Time zone is required") ZoneId timeZone,
+                                   @Positive int durationMinutes) {
+}
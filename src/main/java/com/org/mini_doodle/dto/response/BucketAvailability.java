@@ -0,0 +1,8 @@
+package com.org.mini_doodle.dto.response;
+
+import com.org.mini_doodle.domain.BucketState;
+
+import java.time.OffsetDateTime;
+
+public record BucketAvailability(OffsetDateTime start, OffsetDateTime end, BucketState state, double busyFraction) {
+}
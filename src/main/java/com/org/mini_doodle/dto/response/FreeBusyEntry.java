@@ -0,0 +1,8 @@
+package com.org.mini_doodle.dto.response;
+
+import com.org.mini_doodle.domain.SlotStatus;
+
+import java.time.OffsetDateTime;
+
+public record FreeBusyEntry(SlotStatus status, OffsetDateTime start, OffsetDateTime end) {
+}
@@ -0,0 +1,17 @@
+package com.org.mini_doodle.dto.response;
+
+import com.org.mini_doodle.domain.SlotStatus;
+import com.org.mini_doodle.event.SlotChangeType;
+import com.org.mini_doodle.event.SlotChangedEvent;
+
+import java.time.OffsetDateTime;
+
+/**
+ * One committed slot change. Times are absent for deletes and bookings, which are written without loading the slot.
+ */
+public record SlotChangeResponse(Long slotId, SlotChangeType type, SlotStatus status,
+                                 OffsetDateTime startTime, OffsetDateTime endTime) {
+    public static SlotChangeResponse from(SlotChangedEvent e) {
+        return new SlotChangeResponse(e.slotId(), e.type(), e.status(), e.startTime(), e.endTime());
+    }
+}
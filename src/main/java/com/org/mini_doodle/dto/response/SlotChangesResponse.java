@@ -0,0 +1,25 @@
+package com.org.mini_doodle.dto.response;
+
+import com.org.mini_doodle.repository.projection.ChangedSlot;
+import com.org.mini_doodle.repository.projection.SlotView;
+
+import java.util.List;
+
+/**
+ * One page of delta sync. Clients upsert {@code changed}, drop {@code deleted}, and on the next call pass
+ * {@code nextCursor} as {@code cursor} when it is set, or otherwise {@code nextSince} as {@code since}; only
+ * {@code nextSince} is worth storing between syncs. {@code hasMore} means the next call returns more without waiting
+ * for new writes.
+ */
+public record SlotChangesResponse(List<SlotResponse> changed, List<Long> deleted, Long nextSince, String nextCursor,
+                                  boolean hasMore) {
+    public static SlotChangesResponse of(List<ChangedSlot> changes, Long nextSince, String nextCursor, boolean hasMore) {
+        return new SlotChangesResponse(changes.stream().filter(c -> !c.deleted()).map(SlotResponse::from).toList(),
+                changes.stream().filter(ChangedSlot::deleted).map(ChangedSlot::id).toList(), nextSince, nextCursor, hasMore);
+    }
+
+    public static SlotChangesResponse snapshot(List<SlotView> slots, Long nextSince, String nextCursor, boolean hasMore) {
+        return new SlotChangesResponse(slots.stream().map(SlotResponse::from).toList(), List.of(), nextSince, nextCursor,
+                hasMore);
+    }
+}
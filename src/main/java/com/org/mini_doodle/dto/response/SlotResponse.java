@@ -4,6 +4,8 @@ package com.org.mini_doodle.dto.response;
 
 import com.org.mini_doodle.domain.Slot;
 import com.org.mini_doodle.domain.SlotStatus;
+import com.org.mini_doodle.repository.projection.ChangedSlot;
+import com.org.mini_doodle.repository.projection.SlotView;
 
 import java.time.OffsetDateTime;
 
@@ -11,4 +13,12 @@ public record SlotResponse(Long id, SlotStatus status, OffsetDateTime startTime,
     public static SlotResponse from(Slot s) {
         return new SlotResponse(s.getId(), s.getStatus(), s.getStartTime(), s.getEndTime());
     }
+
+    public static SlotResponse from(SlotView v) {
+        return new SlotResponse(v.id(), v.status(), v.startTime(), v.endTime());
+    }
+
+    public static SlotResponse from(ChangedSlot c) {
+        return new SlotResponse(c.id(), c.status(), c.startTime(), c.endTime());
+    }
 }
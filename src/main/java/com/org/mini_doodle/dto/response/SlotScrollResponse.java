@@ -0,0 +1,6 @@
+package com.org.mini_doodle.dto.response;
+
+import java.util.List;
+
+public record SlotScrollResponse(List<SlotResponse> items, String nextCursor) {
+}
@@ -0,0 +1,4 @@
+package com.org.mini_doodle.event;
+
+public record CalendarCreatedEvent(Long ownerId, Long calendarId) {
+}
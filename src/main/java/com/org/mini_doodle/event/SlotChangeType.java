@@ -0,0 +1,3 @@
+package com.org.mini_doodle.event;
+
+public enum SlotChangeType {CREATED, MODIFIED, STATUS_CHANGED, BOOKED, DELETED}
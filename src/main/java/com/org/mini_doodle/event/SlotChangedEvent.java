@@ -0,0 +1,38 @@
+package com.org.mini_doodle.event;
+
+import com.org.mini_doodle.domain.Slot;
+import com.org.mini_doodle.domain.SlotStatus;
+import com.org.mini_doodle.repository.projection.SlotView;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Published inside the mutating transaction; listeners use {@code @TransactionalEventListener}
+ * so they only observe committed changes.
+ */
+public record SlotChangedEvent(Long calendarId, Long slotId, SlotChangeType type,
+                               OffsetDateTime startTime, OffsetDateTime endTime, SlotStatus status) {
+
+    public static SlotChangedEvent of(Slot slot, SlotChangeType type) {
+        return new SlotChangedEvent(slot.getCalendar().getId(), slot.getId(), type,
+                slot.getStartTime(), slot.getEndTime(), slot.getStatus());
+    }
+
+    public static SlotChangedEvent of(Long calendarId, SlotView slot, SlotChangeType type) {
+        return new SlotChangedEvent(calendarId, slot.id(), type, slot.startTime(), slot.endTime(), slot.status());
+    }
+
+    /**
+     * For bookings made by a conditional claim without loading the slot; times are not known.
+     */
+    public static SlotChangedEvent booked(Long calendarId, Long slotId) {
+        return new SlotChangedEvent(calendarId, slotId, SlotChangeType.BOOKED, null, null, SlotStatus.BUSY);
+    }
+
+    /**
+     * For deletes made without loading the slot; times and status are not known.
+     */
+    public static SlotChangedEvent deleted(Long calendarId, Long slotId) {
+        return new SlotChangedEvent(calendarId, slotId, SlotChangeType.DELETED, null, null, null);
+    }
+}
@@ -1,5 +1,6 @@
 package com.org.mini_doodle.exception;
 
+import com.org.mini_doodle.observability.SchedulingMetrics;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
@@ -22,6 +23,12 @@ import java.util.Map;
 @Slf4j
 public class GlobalExceptionHandler {
 
+    private final SchedulingMetrics schedulingMetrics;
+
+    public GlobalExceptionHandler(SchedulingMetrics schedulingMetrics) {
+        this.schedulingMetrics = schedulingMetrics;
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ProblemDetail handleValidation(MethodArgumentNotValidException ex) {
         Map<String, String> fieldErrors = extractFieldErrors(ex.getBindingResult());
@@ -38,6 +45,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(NotFoundException.class)
     public ProblemDetail handleNotFound(NotFoundException ex) {
+        schedulingMetrics.notFound();
         return createProblemDetail(
                 HttpStatus.NOT_FOUND,
                 "Not Found",
@@ -57,6 +65,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(OverlapConflictException.class)
     public ProblemDetail handleOverlap(OverlapConflictException ex) {
+        schedulingMetrics.overlapConflict();
         return createProblemDetail(
                 HttpStatus.CONFLICT,
                 "Conflict",
@@ -64,6 +73,15 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ProblemDetail handleIdempotencyConflict(IdempotencyConflictException ex) {
+        return createProblemDetail(
+                HttpStatus.UNPROCESSABLE_ENTITY,
+                "Idempotency Key Reused",
+                ex.getMessage()
+        );
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ProblemDetail handleIllegalArgument(IllegalArgumentException ex){
         return createProblemDetail(
@@ -125,6 +143,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(OptimisticLockingFailureException.class)
     public ProblemDetail handleOptimisticLocking(OptimisticLockingFailureException ex) {
+        schedulingMetrics.optimisticLockFailure();
         return createProblemDetail(
                 HttpStatus.CONFLICT,
                 "Concurrent Modification",
@@ -0,0 +1,8 @@
+package com.org.mini_doodle.exception;
+
+
+public class IdempotencyConflictException extends RuntimeException {
+    public IdempotencyConflictException(String m) {
+        super(m);
+    }
+}
@@ -0,0 +1,89 @@
+package com.org.mini_doodle.observability;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accounts the SQL work of every {@code /api} controller invocation: records it per endpoint through
+ * {@link SchedulingMetrics} and logs one key=value line for requests slower than
+ * {@code mini-doodle.diagnostics.slow-request-threshold}, splitting the time into connection wait, JDBC and the
+ * rest (merging, mapping, serialization). Exceptions resolved by {@code GlobalExceptionHandler} are reported
+ * through the attribute the dispatcher sets for them.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "mini-doodle.diagnostics.sql-accounting", havingValue = "true", matchIfMissing = true)
+public class RequestSqlAccountingInterceptor implements AsyncHandlerInterceptor, WebMvcConfigurer {
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+    private static final String NO_EXCEPTION = "none";
+
+    private final SchedulingMetrics schedulingMetrics;
+    private final long slowThresholdNanos;
+
+    public RequestSqlAccountingInterceptor(SchedulingMetrics schedulingMetrics,
+                                           @Value("${mini-doodle.diagnostics.slow-request-threshold:500ms}") Duration slowThreshold) {
+        this.schedulingMetrics = schedulingMetrics;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this).addPathPatterns("/api/**");
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // An async dispatch re-enters the interceptor chain; the request was already accounted when it started.
+        if (request.getDispatcherType() == DispatcherType.REQUEST) {
+            RequestSqlStats.begin();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        complete(request, response, null);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        complete(request, response, ex);
+    }
+
+    private void complete(HttpServletRequest request, HttpServletResponse response, Exception ex) {
+        RequestSqlStats stats = RequestSqlStats.end();
+        if (stats == null) return;
+        long elapsedNanos = stats.elapsedNanos();
+        String uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE) instanceof String pattern
+                ? pattern : UNKNOWN_URI;
+        Object failure = ex != null ? ex : request.getAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE);
+        String exception = failure == null ? NO_EXCEPTION : failure.getClass().getSimpleName();
+
+        schedulingMetrics.requestSqlRecorded(request.getMethod(), uri, exception, stats);
+        if (elapsedNanos >= slowThresholdNanos) {
+            log.warn("Slow request method={} uri={} status={} exception={} elapsedMs={} statements={} rows={} jdbcMs={} "
+                            + "connectionWaitMs={} otherMs={}",
+                    request.getMethod(), uri, response.getStatus(), exception, millis(elapsedNanos), stats.statements(),
+                    stats.rowsCounted() ? stats.rows() : "-", millis(stats.jdbcNanos()), millis(stats.connectionWaitNanos()),
+                    millis(elapsedNanos - stats.jdbcNanos() - stats.connectionWaitNanos()));
+        }
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
@@ -0,0 +1,90 @@
+package com.org.mini_doodle.observability;
+
+/**
+ * SQL work done on the current thread for one request: statements executed, rows read, time spent in JDBC calls
+ * (including commits and rollbacks) and time spent waiting for a pooled connection. Bound to the request thread by
+ * {@link RequestSqlAccountingInterceptor} and filled in by {@link SqlAccountingListener}; JDBC calls made on other
+ * threads (such as streamed response bodies) are not attributed to the request.
+ */
+public final class RequestSqlStats {
+
+    private static final ThreadLocal<RequestSqlStats> CURRENT = new ThreadLocal<>();
+
+    private final long startedNanos = System.nanoTime();
+    private long callStartedNanos;
+    private int statements;
+    private long rows;
+    private boolean rowsCounted;
+    private long jdbcNanos;
+    private long connectionWaitNanos;
+
+    public static RequestSqlStats begin() {
+        RequestSqlStats stats = new RequestSqlStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * The stats of the request running on this thread, or {@code null} outside a request.
+     */
+    public static RequestSqlStats current() {
+        return CURRENT.get();
+    }
+
+    public static RequestSqlStats end() {
+        RequestSqlStats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    void callStarted() {
+        callStartedNanos = System.nanoTime();
+    }
+
+    void statementExecuted() {
+        statements++;
+        jdbcNanos += System.nanoTime() - callStartedNanos;
+    }
+
+    void rowRead(boolean found) {
+        rowsCounted = true;
+        if (found) rows++;
+        jdbcNanos += System.nanoTime() - callStartedNanos;
+    }
+
+    void transactionEnded() {
+        jdbcNanos += System.nanoTime() - callStartedNanos;
+    }
+
+    void connectionAcquired() {
+        connectionWaitNanos += System.nanoTime() - callStartedNanos;
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startedNanos;
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public long rows() {
+        return rows;
+    }
+
+    /**
+     * Whether result set reads were seen at all; they are only proxied with
+     * {@code mini-doodle.diagnostics.sql-accounting.rows=true}.
+     */
+    public boolean rowsCounted() {
+        return rowsCounted;
+    }
+
+    public long jdbcNanos() {
+        return jdbcNanos;
+    }
+
+    public long connectionWaitNanos() {
+        return connectionWaitNanos;
+    }
+}
@@ -0,0 +1,158 @@
+package com.org.mini_doodle.observability;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers and counters for the scheduling hot paths, plus per-endpoint SQL accounting. Scheduling timers publish
+ * percentile histograms so latency percentiles can be aggregated across instances; tag values are bucketed to keep
+ * the number of series bounded.
+ */
+@Component
+public class SchedulingMetrics {
+
+    public static final String OVERLAP_CHECK = "scheduling.overlap.check";
+    public static final String FREE_BUSY = "scheduling.free.busy";
+    public static final String MEETING_SCHEDULE = "scheduling.meeting.schedule";
+    public static final String ERRORS = "scheduling.errors";
+    public static final String REQUEST_SQL_STATEMENTS = "request.sql.statements";
+    public static final String REQUEST_SQL_ROWS = "request.sql.rows";
+    public static final String REQUEST_SQL_TIME = "request.sql.time";
+    public static final String REQUEST_CONNECTION_WAIT = "request.connection.wait";
+
+    private static final Duration MIN_EXPECTED = Duration.ofMillis(1);
+    /** The in-memory interval index answers in microseconds, far below the database-bound timers. */
+    private static final Duration OVERLAP_CHECK_MIN_EXPECTED = Duration.ofNanos(1_000);
+    private static final Duration MAX_EXPECTED = Duration.ofSeconds(10);
+
+    private final MeterRegistry registry;
+    private final Counter overlapConflicts;
+    private final Counter optimisticLockFailures;
+    private final Counter notFound;
+    private final Map<Endpoint, RequestSqlMeters> requestSqlMeters = new ConcurrentHashMap<>();
+
+    public SchedulingMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.overlapConflicts = errorCounter("overlap_conflict");
+        this.optimisticLockFailures = errorCounter("optimistic_lock");
+        this.notFound = errorCounter("not_found");
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    public void overlapChecked(Timer.Sample sample, boolean conflict) {
+        sample.stop(timer(OVERLAP_CHECK, "Overlap check against a calendar's existing slots", OVERLAP_CHECK_MIN_EXPECTED,
+                "outcome", conflict ? "conflict" : "clear"));
+    }
+
+    public void freeBusyServed(Timer.Sample sample, Duration range, int busyIntervals) {
+        sample.stop(timer(FREE_BUSY, "Free/busy computation for one user", MIN_EXPECTED,
+                "range", rangeBucket(range), "busy", countBucket(busyIntervals)));
+    }
+
+    public void meetingScheduled(Timer.Sample sample, int participants, String outcome) {
+        sample.stop(timer(MEETING_SCHEDULE, "Booking a meeting into a slot, including lock wait and commit",
+                MIN_EXPECTED, "participants", participantBucket(participants), "outcome", outcome));
+    }
+
+    public void overlapConflict() {
+        overlapConflicts.increment();
+    }
+
+    public void optimisticLockFailure() {
+        optimisticLockFailures.increment();
+    }
+
+    public void notFound() {
+        notFound.increment();
+    }
+
+    /**
+     * Meters are cached per endpoint so a request costs a map lookup rather than a registry lookup per meter. A
+     * first miss registers outside {@code computeIfAbsent}, which would hold a bin lock across registration.
+     */
+    public void requestSqlRecorded(String method, String uri, String exception, RequestSqlStats stats) {
+        Endpoint endpoint = new Endpoint(method, uri, exception);
+        RequestSqlMeters meters = requestSqlMeters.get(endpoint);
+        if (meters == null) {
+            meters = requestSqlMeters(endpoint);
+            requestSqlMeters.putIfAbsent(endpoint, meters);
+        }
+        meters.statements().record(stats.statements());
+        if (stats.rowsCounted()) meters.rows().record(stats.rows());
+        meters.jdbcTime().record(stats.jdbcNanos(), TimeUnit.NANOSECONDS);
+        meters.connectionWait().record(stats.connectionWaitNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private RequestSqlMeters requestSqlMeters(Endpoint endpoint) {
+        String[] tags = {"method", endpoint.method(), "uri", endpoint.uri(), "exception", endpoint.exception()};
+        return new RequestSqlMeters(
+                DistributionSummary.builder(REQUEST_SQL_STATEMENTS).description("SQL statements executed per request")
+                        .tags(tags).register(registry),
+                DistributionSummary.builder(REQUEST_SQL_ROWS).description("Result set rows read per request")
+                        .tags(tags).register(registry),
+                Timer.builder(REQUEST_SQL_TIME).description("Time spent in JDBC calls per request")
+                        .tags(tags).register(registry),
+                Timer.builder(REQUEST_CONNECTION_WAIT).description("Time spent acquiring pooled connections per request")
+                        .tags(tags).register(registry));
+    }
+
+    private Timer timer(String name, String description, Duration minExpected, String... tags) {
+        return Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(minExpected)
+                .maximumExpectedValue(MAX_EXPECTED)
+                .register(registry);
+    }
+
+    private Counter errorCounter(String type) {
+        return Counter.builder(ERRORS)
+                .description("Scheduling errors returned to clients")
+                .tag("type", type)
+                .register(registry);
+    }
+
+    static String rangeBucket(Duration range) {
+        long hours = range.toHours();
+        if (hours <= 24) return "1d";
+        if (hours <= 7 * 24) return "1w";
+        if (hours <= 31 * 24) return "1M";
+        if (hours <= 92 * 24) return "3M";
+        return "gt3M";
+    }
+
+    static String countBucket(int count) {
+        if (count == 0) return "0";
+        if (count <= 10) return "1-10";
+        if (count <= 100) return "11-100";
+        if (count <= 1000) return "101-1000";
+        return "gt1000";
+    }
+
+    static String participantBucket(int participants) {
+        if (participants <= 1) return "1";
+        if (participants <= 5) return "2-5";
+        if (participants <= 20) return "6-20";
+        if (participants <= 100) return "21-100";
+        return "gt100";
+    }
+
+    private record Endpoint(String method, String uri, String exception) {
+    }
+
+    private record RequestSqlMeters(DistributionSummary statements, DistributionSummary rows, Timer jdbcTime,
+                                    Timer connectionWait) {
+    }
+}
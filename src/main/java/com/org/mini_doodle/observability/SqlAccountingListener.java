@@ -0,0 +1,39 @@
+package com.org.mini_doodle.observability;
+
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Adds every proxied JDBC call made during a request to its {@link RequestSqlStats}. Outside a request the
+ * listener returns after a thread-local read.
+ */
+class SqlAccountingListener implements MethodExecutionListener {
+
+    @Override
+    public void beforeMethod(MethodExecutionContext context) {
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats != null) stats.callStarted();
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext context) {
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats == null) return;
+        Object target = context.getTarget();
+        String method = context.getMethod().getName();
+        if (target instanceof ResultSet) {
+            if (method.equals("next")) stats.rowRead(Boolean.TRUE.equals(context.getResult()));
+        } else if (target instanceof Statement) {
+            if (method.startsWith("execute")) stats.statementExecuted();
+        } else if (target instanceof Connection) {
+            if (method.equals("commit") || method.equals("rollback")) stats.transactionEnded();
+        } else if (target instanceof DataSource && method.equals("getConnection")) {
+            stats.connectionAcquired();
+        }
+    }
+}
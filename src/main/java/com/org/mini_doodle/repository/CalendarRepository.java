@@ -1,9 +1,29 @@
 package com.org.mini_doodle.repository;
 
 import com.org.mini_doodle.domain.Calendar;
+import com.org.mini_doodle.repository.projection.CalendarOwner;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface CalendarRepository extends JpaRepository<Calendar,Long> {
     Optional<Calendar> findByOwnerId(Long ownerId);
+
+    @Query("select c.id from Calendar c where c.owner.id = :ownerId")
+    Optional<Long> findIdByOwnerId(Long ownerId);
+
+    @Query("select new com.org.mini_doodle.repository.projection.CalendarOwner(c.owner.id, c.id) " +
+            "from Calendar c where c.owner.id in :ownerIds")
+    List<CalendarOwner> findCalendarIdsByOwnerIds(Collection<Long> ownerIds);
+
+    @Modifying
+    @Query("update Calendar c set c.changeSeq = c.changeSeq + 1 where c.id = :calendarId")
+    int advanceChangeSeq(Long calendarId);
+
+    @Query("select c.changeSeq from Calendar c where c.id = :calendarId")
+    Optional<Long> findChangeSeq(Long calendarId);
 }
@@ -0,0 +1,57 @@
+package com.org.mini_doodle.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Moves id sequences past the ids already in their tables. Tables that used identity columns before switching to a
+ * pooled sequence keep their rows when {@code ddl-auto=update} creates the sequence at 1, and the first inserts would
+ * reuse existing ids. Runs after the schema is generated and before requests are served. A sequence is only ever
+ * moved forward, so a block still cached by another instance is never handed out twice.
+ */
+@Slf4j
+@Component
+public class IdSequenceAlignment implements SmartInitializingSingleton {
+
+    /** Sequence, table it feeds, and the allocation size of its {@code @SequenceGenerator}. */
+    record IdSequence(String sequence, String table, int allocationSize) {
+    }
+
+    static final List<IdSequence> SEQUENCES = List.of(
+            new IdSequence("slot_seq", "slots", 50),
+            new IdSequence("meeting_seq", "meetings", 50),
+            new IdSequence("participant_seq", "participants", 50));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Dialect dialect;
+
+    public IdSequenceAlignment(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        SEQUENCES.forEach(this::align);
+    }
+
+    private void align(IdSequence id) {
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from " + id.table(), Long.class);
+        if (maxId == null) return;
+        Long next = jdbcTemplate.queryForObject(
+                dialect.getSequenceSupport().getSequenceNextValString(id.sequence()), Long.class);
+        // a pooled block hands out ids from next - allocationSize + 1 up to next
+        if (next != null && next - id.allocationSize() >= maxId) return;
+
+        long restart = maxId + id.allocationSize() + 1;
+        jdbcTemplate.execute("alter sequence " + id.sequence() + " restart with " + restart);
+        log.warn("Restarted sequence {} at {} past the existing ids of {}", id.sequence(), restart, id.table());
+    }
+}
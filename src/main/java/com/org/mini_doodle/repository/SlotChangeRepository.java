@@ -0,0 +1,54 @@
+package com.org.mini_doodle.repository;
+
+import com.org.mini_doodle.domain.SlotChange;
+import com.org.mini_doodle.repository.projection.ChangedSlot;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface SlotChangeRepository extends JpaRepository<SlotChange, Long> {
+
+    /*
+     * Written only by the commit step of SlotChangeSequence, which holds the calendar row, so rows of one calendar are
+     * never written concurrently. The change sequence is the calendar's current one, which that step has just
+     * advanced, and is not read first.
+     */
+
+    /**
+     * Moves the rows of the given slots to the current change sequence; a slot that is gone becomes a deletion.
+     */
+    @Modifying
+    @Query("update SlotChange c set c.changeSeq = (select cal.changeSeq from Calendar cal where cal.id = :calendarId) " +
+            "where c.slotId in :slotIds")
+    int advance(Collection<Long> slotIds, Long calendarId);
+
+    /**
+     * Adds rows for written slots that have none: new slots, and slots that predate the change log.
+     */
+    @Modifying
+    @Query("insert into SlotChange (slotId, calendarId, changeSeq) " +
+            "select s.id, c.id, c.changeSeq from Slot s, Calendar c where s.id in :slotIds and c.id = :calendarId " +
+            "and not exists (select x.slotId from SlotChange x where x.slotId = s.id)")
+    int recordWritten(Collection<Long> slotIds, Long calendarId);
+
+    @Modifying
+    @Query("insert into SlotChange (slotId, calendarId, changeSeq) " +
+            "select :slotId, c.id, c.changeSeq from Calendar c where c.id = :calendarId " +
+            "and not exists (select x.slotId from SlotChange x where x.slotId = :slotId)")
+    int recordDeleted(Long slotId, Long calendarId);
+
+    /**
+     * Changes after the keyset position {@code (afterSeq, afterId)} up to {@code upTo}, in {@code (changeSeq, slotId)}
+     * order. A deleted slot comes back without status and times.
+     */
+    @Query("select new com.org.mini_doodle.repository.projection.ChangedSlot(c.slotId, s.status, s.startTime, s.endTime, c.changeSeq) " +
+            "from SlotChange c left join Slot s on s.id = c.slotId " +
+            "where c.calendarId = :calendarId and c.changeSeq <= :upTo " +
+            "and (c.changeSeq > :afterSeq or (c.changeSeq = :afterSeq and c.slotId > :afterId)) " +
+            "order by c.changeSeq, c.slotId")
+    List<ChangedSlot> findChangesAfter(Long calendarId, long afterSeq, long afterId, long upTo, Limit limit);
+}
@@ -0,0 +1,46 @@
+package com.org.mini_doodle.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Installs the Postgres objects behind {@code mini-doodle.slots.overlap-mode=exclusion}: a generated
+ * {@code tstzrange} column over each slot's {@code [start, end)} and a GiST exclusion constraint that rejects two
+ * slots of one calendar whose ranges overlap. Runs after the schema is generated and before requests are served;
+ * every statement is idempotent.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "mini-doodle.slots.overlap-mode", havingValue = "exclusion")
+public class SlotExclusionConstraint implements SmartInitializingSingleton {
+
+    public static final String CONSTRAINT_NAME = "slots_no_overlap";
+    public static final String EXCLUSION_VIOLATION_SQL_STATE = "23P01";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SlotExclusionConstraint(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        jdbcTemplate.execute("create extension if not exists btree_gist");
+        jdbcTemplate.execute("""
+                alter table slots add column if not exists time_range tstzrange
+                    generated always as (tstzrange(start_time, end_time, '[)')) stored""");
+        jdbcTemplate.execute("""
+                do $$
+                begin
+                    if not exists (select 1 from pg_constraint where conname = '%s') then
+                        alter table slots add constraint %s
+                            exclude using gist (calendar_id with =, time_range with &&);
+                    end if;
+                end
+                $$""".formatted(CONSTRAINT_NAME, CONSTRAINT_NAME));
+        log.info("Slot overlap is enforced by exclusion constraint {}", CONSTRAINT_NAME);
+    }
+}
@@ -1,23 +1,122 @@
 package com.org.mini_doodle.repository;
 
-import com.org.mini_doodle.domain.Calendar;
 import com.org.mini_doodle.domain.Slot;
 import com.org.mini_doodle.domain.SlotStatus;
+import com.org.mini_doodle.repository.projection.CalendarInterval;
+import com.org.mini_doodle.repository.projection.SlotBounds;
+import com.org.mini_doodle.repository.projection.SlotOwnership;
+import com.org.mini_doodle.repository.projection.SlotView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface SlotRepository extends JpaRepository<Slot,Long> {
-    @Query("select s from Slot s where s.calendar = :calendar and s.endTime > :from and s.startTime < :to")
-    List<Slot> findOverlapping(Calendar calendar, OffsetDateTime from, OffsetDateTime to);
+    @Query("select new com.org.mini_doodle.repository.projection.SlotBounds(s.id, s.startTime, s.endTime) " +
+            "from Slot s where s.calendar.id = :calendarId order by s.startTime")
+    List<SlotBounds> findBoundsByCalendarId(Long calendarId);
 
-    Page<Slot> findByCalendarAndStartTimeBetween(Calendar calendar, OffsetDateTime from, OffsetDateTime to, Pageable pageable);
-    List<Slot> findByCalendarAndStartTimeBetween(Calendar calendar, OffsetDateTime from, OffsetDateTime to);
+    @Query("select new com.org.mini_doodle.repository.projection.CalendarInterval(s.calendar.id, s.startTime, s.endTime) " +
+            "from Slot s where s.calendar.id in :calendarIds and s.status = :status and s.endTime > :from and s.startTime < :to " +
+            "order by s.calendar.id, s.startTime")
+    List<CalendarInterval> findIntervalsByCalendarIds(Collection<Long> calendarIds, SlotStatus status,
+                                                      OffsetDateTime from, OffsetDateTime to);
 
-    Page<Slot> findByCalendarAndStartTimeBetweenAndStatus(Calendar calendar, OffsetDateTime from, OffsetDateTime to, SlotStatus status, Pageable pageable);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.org.mini_doodle.repository.projection.CalendarInterval(s.calendar.id, s.startTime, s.endTime) " +
+            "from Slot s where s.calendar.id = :calendarId and s.status = :status and s.endTime > :from and s.startTime < :to " +
+            "order by s.startTime")
+    Stream<CalendarInterval> streamIntervalsByCalendarId(Long calendarId, SlotStatus status, OffsetDateTime from, OffsetDateTime to);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.org.mini_doodle.repository.projection.SlotView(s.id, s.status, s.startTime, s.endTime) " +
+            "from Slot s where s.calendar.id = :calendarId and s.startTime between :from and :to order by s.startTime, s.id")
+    Stream<SlotView> streamViewsByCalendarId(Long calendarId, OffsetDateTime from, OffsetDateTime to);
+
+    @Query(value = "select new com.org.mini_doodle.repository.projection.SlotView(s.id, s.status, s.startTime, s.endTime) " +
+            "from Slot s where s.calendar.id = :calendarId and s.startTime between :from and :to",
+            countQuery = "select count(s) from Slot s where s.calendar.id = :calendarId and s.startTime between :from and :to")
+    Page<SlotView> findViewsByCalendarId(Long calendarId, OffsetDateTime from, OffsetDateTime to, Pageable pageable);
+
+    @Query(value = "select new com.org.mini_doodle.repository.projection.SlotView(s.id, s.status, s.startTime, s.endTime) " +
+            "from Slot s where s.calendar.id = :calendarId and s.startTime between :from and :to and s.status = :status",
+            countQuery = "select count(s) from Slot s where s.calendar.id = :calendarId and s.startTime between :from and :to " +
+                    "and s.status = :status")
+    Page<SlotView> findViewsByCalendarIdAndStatus(Long calendarId, OffsetDateTime from, OffsetDateTime to, SlotStatus status,
+                                                  Pageable pageable);
+
+    @Query("select new com.org.mini_doodle.repository.projection.SlotView(s.id, s.status, s.startTime, s.endTime) " +
+            "from Slot s where s.calendar.id = :calendarId and s.startTime between :from and :to " +
+            "and (s.startTime > :afterStart or (s.startTime = :afterStart and s.id > :afterId)) " +
+            "order by s.startTime, s.id")
+    List<SlotView> findViewsAfter(Long calendarId, OffsetDateTime from, OffsetDateTime to,
+                                  OffsetDateTime afterStart, Long afterId, Limit limit);
+
+    @Query("select new com.org.mini_doodle.repository.projection.SlotView(s.id, s.status, s.startTime, s.endTime) " +
+            "from Slot s where s.calendar.id = :calendarId and s.startTime between :from and :to and s.status = :status " +
+            "and (s.startTime > :afterStart or (s.startTime = :afterStart and s.id > :afterId)) " +
+            "order by s.startTime, s.id")
+    List<SlotView> findViewsAfterWithStatus(Long calendarId, OffsetDateTime from, OffsetDateTime to, SlotStatus status,
+                                            OffsetDateTime afterStart, Long afterId, Limit limit);
+
+    /*
+     * Conditional single-statement writes. Each matches only a slot of the given calendar, so the affected-row count
+     * tells whether the write happened; the version is bumped so concurrent entity updates still fail their
+     * optimistic check. None of them touches the calendar row; the caller records the change for delta sync only
+     * after a row matched, and it is written at commit.
+     */
+
+    @Modifying
+    @Query("update Slot s set s.status = :status, s.version = s.version + 1 " +
+            "where s.id = :slotId and s.calendar.id = :calendarId " +
+            "and (:status <> com.org.mini_doodle.domain.SlotStatus.FREE " +
+            "or not exists (select m.id from Meeting m where m.slot.id = s.id))")
+    int updateStatusIfOwned(Long slotId, Long calendarId, SlotStatus status);
+
+    /**
+     * Claims a free, unbooked slot for a meeting. Of several concurrent bookers only one sees an affected row; the
+     * others fail here, before the meeting is written.
+     */
+    @Modifying
+    @Query("update Slot s set s.status = com.org.mini_doodle.domain.SlotStatus.BUSY, s.version = s.version + 1 " +
+            "where s.id = :slotId and s.calendar.id = :calendarId " +
+            "and s.status = com.org.mini_doodle.domain.SlotStatus.FREE " +
+            "and not exists (select m.id from Meeting m where m.slot.id = s.id)")
+    int claimIfFree(Long slotId, Long calendarId);
+
+    @Modifying
+    @Query("update Slot s set s.startTime = :startTime, s.endTime = :endTime, s.version = s.version + 1 " +
+            "where s.id = :slotId and s.calendar.id = :calendarId")
+    int updateTimesIfOwned(Long slotId, Long calendarId, OffsetDateTime startTime, OffsetDateTime endTime);
+
+    @Modifying
+    @Query("delete from Slot s where s.id = :slotId and s.calendar.id = :calendarId " +
+            "and not exists (select m.id from Meeting m where m.slot.id = s.id)")
+    int deleteUnbookedIfOwned(Long slotId, Long calendarId);
+
+    @Query("select new com.org.mini_doodle.repository.projection.SlotView(s.id, s.status, s.startTime, s.endTime) " +
+            "from Slot s where s.id = :slotId")
+    Optional<SlotView> findViewById(Long slotId);
+
+    @Query("select new com.org.mini_doodle.repository.projection.SlotOwnership(s.calendar.id, m.id) " +
+            "from Slot s left join s.meeting m where s.id = :slotId")
+    Optional<SlotOwnership> findOwnershipById(Long slotId);
+
+    /**
+     * Every slot of the calendar after {@code afterId} in id order, for the delta sync snapshot.
+     */
+    @Query("select new com.org.mini_doodle.repository.projection.SlotView(s.id, s.status, s.startTime, s.endTime) " +
+            "from Slot s where s.calendar.id = :calendarId and s.id > :afterId order by s.id")
+    List<SlotView> findViewsByIdAfter(Long calendarId, long afterId, Limit limit);
 }
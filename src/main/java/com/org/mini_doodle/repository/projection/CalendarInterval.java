@@ -0,0 +1,6 @@
+package com.org.mini_doodle.repository.projection;
+
+import java.time.OffsetDateTime;
+
+public record CalendarInterval(Long calendarId, OffsetDateTime startTime, OffsetDateTime endTime) {
+}
@@ -0,0 +1,4 @@
+package com.org.mini_doodle.repository.projection;
+
+public record CalendarOwner(Long ownerId, Long calendarId) {
+}
@@ -0,0 +1,15 @@
+package com.org.mini_doodle.repository.projection;
+
+import com.org.mini_doodle.domain.SlotStatus;
+
+import java.time.OffsetDateTime;
+
+/**
+ * A slot change as returned by delta sync, with the change sequence it was last written or deleted at. A deleted
+ * slot has no status and times.
+ */
+public record ChangedSlot(Long id, SlotStatus status, OffsetDateTime startTime, OffsetDateTime endTime, long changeSeq) {
+    public boolean deleted() {
+        return status == null;
+    }
+}
@@ -0,0 +1,6 @@
+package com.org.mini_doodle.repository.projection;
+
+import java.time.OffsetDateTime;
+
+public record SlotBounds(Long id, OffsetDateTime startTime, OffsetDateTime endTime) {
+}
@@ -0,0 +1,12 @@
+package com.org.mini_doodle.repository.projection;
+
+/**
+ * Calendar and meeting of one slot, read when a conditional write matched no row to tell a missing slot from
+ * someone else's slot or a booked one.
+ */
+public record SlotOwnership(Long calendarId, Long meetingId) {
+
+    public boolean booked() {
+        return meetingId != null;
+    }
+}
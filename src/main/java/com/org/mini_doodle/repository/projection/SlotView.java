@@ -0,0 +1,12 @@
+package com.org.mini_doodle.repository.projection;
+
+import com.org.mini_doodle.domain.SlotStatus;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Read model for slot listings: constructor-projected straight from the slots table, so no Calendar, owner
+ * or Meeting is loaded and nothing enters the persistence context.
+ */
+public record SlotView(Long id, SlotStatus status, OffsetDateTime startTime, OffsetDateTime endTime) {
+}
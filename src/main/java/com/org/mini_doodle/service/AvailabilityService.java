@@ -1,111 +1,234 @@
 package com.org.mini_doodle.service;
 
-import com.org.mini_doodle.domain.Calendar;
-import com.org.mini_doodle.domain.Slot;
+import com.org.mini_doodle.domain.BucketState;
 import com.org.mini_doodle.domain.SlotStatus;
 import com.org.mini_doodle.domain.TimeInterval;
+import com.org.mini_doodle.dto.response.BucketAvailability;
+import com.org.mini_doodle.dto.response.FreeBusyEntry;
 import com.org.mini_doodle.dto.response.FreeBusyResponse;
 import com.org.mini_doodle.exception.NotFoundException;
-import com.org.mini_doodle.repository.CalendarRepository;
+import com.org.mini_doodle.observability.SchedulingMetrics;
 import com.org.mini_doodle.repository.SlotRepository;
+import com.org.mini_doodle.repository.projection.CalendarInterval;
+import com.org.mini_doodle.util.EpochIntervals;
+import com.org.mini_doodle.util.EpochTimes;
+import com.org.mini_doodle.util.OccupancyBitmap;
+import com.org.mini_doodle.util.ValidationUtil;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 public class AvailabilityService {
 
     private final SlotRepository slotRepository;
-    private final CalendarRepository calendarRepository;
-
-    public AvailabilityService(SlotRepository slotRepository, CalendarRepository calendarRepository) {
+    private final CalendarCache calendarCache;
+    private final FreeBusyCache freeBusyCache;
+    private final SchedulingMetrics schedulingMetrics;
+    private static final int MAX_GROUP_SIZE = 1000;
+    private static final int PARALLEL_MERGE_THRESHOLD = 50;
+    private static final Duration MAX_BUCKETED_RANGE = Duration.ofDays(366);
+    private static final int MAX_BUCKETS = 10_000;
+
+    public AvailabilityService(SlotRepository slotRepository, CalendarCache calendarCache, FreeBusyCache freeBusyCache,
+                               SchedulingMetrics schedulingMetrics) {
         this.slotRepository = slotRepository;
-        this.calendarRepository = calendarRepository;
+        this.calendarCache = calendarCache;
+        this.freeBusyCache = freeBusyCache;
+        this.schedulingMetrics = schedulingMetrics;
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Served from {@link FreeBusyCache} when the calendar has not changed since the same range was last computed.
+     * Not transactional: a cache hit should not borrow a connection, and a miss needs only the single busy query.
+     * Timed with hits included, tagged by range width and number of busy intervals.
+     */
     public FreeBusyResponse freeBusyForUser(Long userId, OffsetDateTime from, OffsetDateTime to) {
+        Timer.Sample sample = schedulingMetrics.start();
+        Long calendarId = calendarIdOf(userId);
+        FreeBusyResponse response = freeBusyCache.get(calendarId, from, to, () -> computeFreeBusy(userId, calendarId, from, to));
+        schedulingMetrics.freeBusyServed(sample, Duration.between(from, to), response.busy().size());
+        return response;
+    }
+
+    private FreeBusyResponse computeFreeBusy(Long userId, Long calendarId, OffsetDateTime from, OffsetDateTime to) {
         log.info("Calculating availability for user={} between {} and {}", userId, from, to);
-        Calendar calendar = calendarRepository.findByOwnerId(userId)
-                .orElseThrow(() -> new NotFoundException("Calendar not found for user: " + userId));
+        List<CalendarInterval> busySlots = slotRepository.findIntervalsByCalendarIds(List.of(calendarId), SlotStatus.BUSY, from, to);
 
-        List<Slot> slots = slotRepository.findByCalendarAndStartTimeBetween(calendar, from, to);
+        EpochIntervals busy = toEpochIntervals(busySlots).sort().merge();
+        EpochIntervals free = busy.complementInto(EpochTimes.toMicros(from), EpochTimes.toMicros(to),
+                new EpochIntervals(busy.size() + 1));
 
-        List<TimeInterval> busyIntervals = extractBusyIntervals(slots);
-        List<TimeInterval> mergedBusyIntervals = mergeOverlappingIntervals(busyIntervals);
-        List<TimeInterval> freeIntervals = calculateFreeIntervals(from, to, mergedBusyIntervals);
+        log.debug("Busy intervals={} Free intervals={}", busy.size(), free.size());
+        return new FreeBusyResponse(busy.toTimeIntervals(from.getOffset()), free.toTimeIntervals(from.getOffset()));
+    }
 
-        log.debug("Busy intervals={} Free intervals={}", busyIntervals, freeIntervals);
-        return new FreeBusyResponse(mergedBusyIntervals, freeIntervals);
+    /**
+     * Validates an export range and resolves the user's calendar before the streamed response is committed, so a
+     * bad range or unknown user is answered with its error status rather than an empty 200.
+     */
+    public Long calendarIdForExport(Long userId, OffsetDateTime from, OffsetDateTime to) {
+        ValidationUtil.ensureStartBeforeEnd(from, to);
+        return calendarIdOf(userId);
     }
 
+    /**
+     * Streaming variant of {@link #freeBusyForUser} for a calendar from {@link #calendarIdForExport}: busy slots are
+     * read from a forward-only cursor and merged on the fly, and each busy or free interval is handed to
+     * {@code sink} as soon as it is closed.
+     */
     @Transactional(readOnly = true)
-    public List<TimeInterval> bucketedForUser(Long userId, OffsetDateTime from, OffsetDateTime to, Duration bucket) {
-        List<TimeInterval> result = new ArrayList<>();
-        OffsetDateTime cursor = from;
-
-        while (cursor.isBefore(to)) {
-            OffsetDateTime end = cursor.plus(bucket);
-            if (end.isAfter(to)) {
-                end = to;
+    public void streamFreeBusy(Long calendarId, OffsetDateTime from, OffsetDateTime to, Consumer<FreeBusyEntry> sink) {
+
+        ZoneOffset offset = from.getOffset();
+        long fromMicros = EpochTimes.toMicros(from);
+        long toMicros = EpochTimes.toMicros(to);
+        long freeFrom = fromMicros;
+        boolean open = false;
+        long busyStart = 0;
+        long busyEnd = 0;
+
+        try (Stream<CalendarInterval> rows = slotRepository.streamIntervalsByCalendarId(calendarId, SlotStatus.BUSY, from, to)) {
+            Iterator<CalendarInterval> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                CalendarInterval row = iterator.next();
+                long start = EpochTimes.toMicros(row.startTime());
+                long end = EpochTimes.toMicros(row.endTime());
+                if (open && start <= busyEnd) {
+                    busyEnd = Math.max(busyEnd, end);
+                    continue;
+                }
+                if (open) {
+                    sink.accept(entry(SlotStatus.BUSY, busyStart, busyEnd, offset));
+                    freeFrom = Math.max(freeFrom, busyEnd);
+                }
+                if (start > freeFrom && freeFrom < toMicros) {
+                    sink.accept(entry(SlotStatus.FREE, freeFrom, Math.min(start, toMicros), offset));
+                }
+                busyStart = start;
+                busyEnd = end;
+                open = true;
             }
-            result.add(new TimeInterval(cursor, end));
-            cursor = cursor.plus(bucket);
         }
-        return result;
+        if (open) {
+            sink.accept(entry(SlotStatus.BUSY, busyStart, busyEnd, offset));
+            freeFrom = Math.max(freeFrom, busyEnd);
+        }
+        if (freeFrom < toMicros) {
+            sink.accept(entry(SlotStatus.FREE, freeFrom, toMicros, offset));
+        }
     }
 
-    private List<TimeInterval> extractBusyIntervals(List<Slot> slots) {
-        return slots.stream()
-                .filter(slot -> slot.getStatus() == SlotStatus.BUSY)
-                .map(slot -> new TimeInterval(slot.getStartTime(), slot.getEndTime()))
-                .sorted(Comparator.comparing(TimeInterval::start))
-                .toList();
+    @Transactional(readOnly = true)
+    public List<TimeInterval> commonFreeForUsers(Collection<Long> userIds, OffsetDateTime from, OffsetDateTime to,
+                                                 Duration minDuration) {
+        ValidationUtil.ensureStartBeforeEnd(from, to);
+        Set<Long> owners = new LinkedHashSet<>(userIds);
+        if (owners.isEmpty() || owners.size() > MAX_GROUP_SIZE) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_GROUP_SIZE + " user ids must be provided");
+        }
+        log.info("Calculating common free time for {} users between {} and {}", owners.size(), from, to);
+
+        List<Long> calendarIds = resolveCalendarIds(owners);
+        Map<Long, EpochIntervals> busyByCalendar = new HashMap<>();
+        for (CalendarInterval interval : slotRepository.findIntervalsByCalendarIds(calendarIds, SlotStatus.BUSY, from, to)) {
+            busyByCalendar.computeIfAbsent(interval.calendarId(), id -> new EpochIntervals(16))
+                    .add(EpochTimes.toMicros(interval.startTime()), EpochTimes.toMicros(interval.endTime()));
+        }
+
+        List<EpochIntervals> busySets = new ArrayList<>(busyByCalendar.values());
+        if (busySets.size() >= PARALLEL_MERGE_THRESHOLD) {
+            busySets.parallelStream().forEach(busy -> busy.sort().merge());
+        } else {
+            busySets.forEach(busy -> busy.sort().merge());
+        }
+
+        long minLength = Math.max(1, minDuration.toNanos() / 1_000);
+        EpochIntervals free = EpochIntervals.commonGapsInto(busySets, EpochTimes.toMicros(from), EpochTimes.toMicros(to),
+                minLength, new EpochIntervals(16));
+        return free.toTimeIntervals(from.getOffset());
     }
 
-    private List<TimeInterval> mergeOverlappingIntervals(List<TimeInterval> intervals) {
-        if (intervals.isEmpty()) {
-            return new ArrayList<>();
+    @Transactional(readOnly = true)
+    public List<BucketAvailability> bucketedForUser(Long userId, OffsetDateTime from, OffsetDateTime to, Duration bucket) {
+        ValidationUtil.ensureStartBeforeEnd(from, to);
+        validateBucketing(from, to, bucket);
+        Long calendarId = calendarIdOf(userId);
+
+        OccupancyBitmap occupancy = new OccupancyBitmap(EpochTimes.toMicros(from), EpochTimes.toMicros(to));
+        for (CalendarInterval busy : slotRepository.findIntervalsByCalendarIds(List.of(calendarId), SlotStatus.BUSY, from, to)) {
+            occupancy.markBusy(EpochTimes.toMicros(busy.startTime()), EpochTimes.toMicros(busy.endTime()));
         }
 
-        List<TimeInterval> merged = new ArrayList<>();
+        int bucketMinutes = (int) bucket.toMinutes();
+        List<BucketAvailability> result = new ArrayList<>(Math.ceilDiv(occupancy.minutes(), bucketMinutes));
+        for (int startMinute = 0; startMinute < occupancy.minutes(); startMinute += bucketMinutes) {
+            int endMinute = Math.min(startMinute + bucketMinutes, occupancy.minutes());
+            OffsetDateTime start = from.plusMinutes(startMinute);
+            OffsetDateTime end = endMinute == occupancy.minutes() ? to : from.plusMinutes(endMinute);
+            result.add(toBucket(start, end, occupancy.busyMinutes(startMinute, endMinute), endMinute - startMinute));
+        }
+        return result;
+    }
 
-        for (TimeInterval interval : intervals) {
-            if (merged.isEmpty() || interval.start().isAfter(merged.getLast().end())) {
-                merged.add(interval);
-            } else {
-                TimeInterval last = merged.removeLast();
-                OffsetDateTime newEnd = last.end().isAfter(interval.end()) ? last.end() : interval.end();
-                merged.add(new TimeInterval(last.start(), newEnd));
-            }
+    private void validateBucketing(OffsetDateTime from, OffsetDateTime to, Duration bucket) {
+        if (bucket.isNegative() || bucket.toMinutes() < 1 || bucket.toSecondsPart() != 0 || bucket.toNanosPart() != 0) {
+            throw new IllegalArgumentException("Granularity must be a positive whole number of minutes");
+        }
+        if (Duration.between(from, to).compareTo(MAX_BUCKETED_RANGE) > 0) {
+            throw new IllegalArgumentException("Bucketed range must not exceed " + MAX_BUCKETED_RANGE.toDays() + " days");
         }
+        if (Math.ceilDiv(Duration.between(from, to).toSeconds(), bucket.toSeconds()) > MAX_BUCKETS) {
+            throw new IllegalArgumentException("Range must not exceed " + MAX_BUCKETS + " buckets; use a coarser granularity");
+        }
+    }
 
-        return merged;
+    private static BucketAvailability toBucket(OffsetDateTime start, OffsetDateTime end, int busyMinutes, int totalMinutes) {
+        BucketState state = busyMinutes == 0 ? BucketState.FREE
+                : busyMinutes == totalMinutes ? BucketState.BUSY : BucketState.PARTIAL;
+        return new BucketAvailability(start, end, state, (double) busyMinutes / totalMinutes);
     }
 
-    private List<TimeInterval> calculateFreeIntervals(OffsetDateTime from, OffsetDateTime to,
-                                                      List<TimeInterval> busyIntervals) {
-        List<TimeInterval> free = new ArrayList<>();
-        OffsetDateTime cursor = from;
+    private Long calendarIdOf(Long userId) {
+        return calendarCache.findCalendarId(userId)
+                .orElseThrow(() -> new NotFoundException("Calendar not found for user: " + userId));
+    }
 
-        for (TimeInterval busyInterval : busyIntervals) {
-            if (busyInterval.start().isAfter(cursor)) {
-                free.add(new TimeInterval(cursor, busyInterval.start()));
-            }
-            cursor = busyInterval.end().isAfter(cursor) ? busyInterval.end() : cursor;
+    private List<Long> resolveCalendarIds(Set<Long> owners) {
+        Map<Long, Long> calendars = calendarCache.findCalendarIds(owners);
+        if (calendars.size() < owners.size()) {
+            Set<Long> missing = new LinkedHashSet<>(owners);
+            missing.removeAll(calendars.keySet());
+            throw new NotFoundException("Calendar not found for users: " + missing);
         }
+        return owners.stream().map(calendars::get).toList();
+    }
 
-        if (cursor.isBefore(to)) {
-            free.add(new TimeInterval(cursor, to));
-        }
+    private static FreeBusyEntry entry(SlotStatus status, long startMicros, long endMicros, ZoneOffset offset) {
+        return new FreeBusyEntry(status, EpochTimes.fromMicros(startMicros, offset), EpochTimes.fromMicros(endMicros, offset));
+    }
 
-        return free;
+    private EpochIntervals toEpochIntervals(List<CalendarInterval> intervals) {
+        EpochIntervals result = new EpochIntervals(intervals.size());
+        for (CalendarInterval interval : intervals) {
+            result.add(EpochTimes.toMicros(interval.startTime()), EpochTimes.toMicros(interval.endTime()));
+        }
+        return result;
     }
 }
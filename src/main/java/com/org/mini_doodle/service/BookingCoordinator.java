@@ -0,0 +1,157 @@
+package com.org.mini_doodle.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.org.mini_doodle.domain.Meeting;
+import com.org.mini_doodle.domain.SlotStatus;
+import com.org.mini_doodle.dto.request.ScheduleMeetingRequest;
+import com.org.mini_doodle.event.SlotChangedEvent;
+import com.org.mini_doodle.exception.NotFoundException;
+import com.org.mini_doodle.exception.OverlapConflictException;
+import com.org.mini_doodle.observability.SchedulingMetrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes competing bookings of the same slot before {@link MeetingService#schedule} opens its transaction.
+ * Slots hash onto a fixed set of lock stripes, and slots whose booking this instance has committed are remembered,
+ * with their calendar, so later bookers from that calendar are rejected without a lock or a database round trip.
+ * Bookers from other calendars always reach {@link MeetingService}, which answers them with forbidden or not
+ * found, so the shortcut never tells a non-owner that a slot is booked.
+ *
+ * <p>Coordination is per instance. A slot freed or deleted on another instance is remembered as taken for at
+ * most {@code mini-doodle.booking.taken-slots-ttl}; the conditional slot claim and the unique meeting constraint
+ * still guard against bookings made elsewhere.
+ *
+ * <p>With {@code mini-doodle.booking.mode=pipelined}, bookings skip the lock stripes and are handed to
+ * {@link BookingPipeline}, which commits them in batches per calendar.
+ *
+ * <p>Bookings are timed here rather than in {@link MeetingService}, so the timer covers lock or queue wait and the
+ * commit, which a timer inside the transaction would miss.
+ */
+@Slf4j
+@Component
+public class BookingCoordinator {
+
+    private static final String SLOT_NOT_AVAILABLE = "Slot not available";
+
+    private final MeetingService meetingService;
+    private final BookingPipeline bookingPipeline;
+    private final UserService userService;
+    private final SchedulingMetrics schedulingMetrics;
+    private final BookingMode mode;
+    private final ReentrantLock[] stripes;
+    private final Duration lockTimeout;
+    /** Booked slot id to the calendar it belongs to. */
+    private final Cache<Long, Long> takenSlots;
+
+    public BookingCoordinator(MeetingService meetingService, BookingPipeline bookingPipeline, UserService userService,
+                              SchedulingMetrics schedulingMetrics,
+                              @Value("${mini-doodle.booking.mode:direct}") BookingMode mode,
+                              @Value("${mini-doodle.booking.lock-stripes:256}") int lockStripes,
+                              @Value("${mini-doodle.booking.lock-timeout:PT5S}") Duration lockTimeout,
+                              @Value("${mini-doodle.booking.taken-slots-maximum-size:100000}") long takenSlotsMaximumSize,
+                              @Value("${mini-doodle.booking.taken-slots-ttl:PT1M}") Duration takenSlotsTtl) {
+        this.meetingService = meetingService;
+        this.bookingPipeline = bookingPipeline;
+        this.userService = userService;
+        this.schedulingMetrics = schedulingMetrics;
+        this.mode = mode;
+        this.stripes = new ReentrantLock[Integer.highestOneBit(Math.max(1, lockStripes - 1)) << 1];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.lockTimeout = lockTimeout;
+        this.takenSlots = Caffeine.newBuilder()
+                .maximumSize(takenSlotsMaximumSize)
+                .expireAfterWrite(takenSlotsTtl)
+                .build();
+    }
+
+    public Meeting schedule(Long userId, ScheduleMeetingRequest req) {
+        Timer.Sample sample = schedulingMetrics.start();
+        String outcome = "error";
+        try {
+            Meeting meeting = book(userId, req);
+            outcome = "booked";
+            return meeting;
+        } catch (RuntimeException ex) {
+            outcome = outcomeOf(ex);
+            throw ex;
+        } finally {
+            schedulingMetrics.meetingScheduled(sample, req.participantUserIds().size(), outcome);
+        }
+    }
+
+    private Meeting book(Long userId, ScheduleMeetingRequest req) {
+        Long slotId = req.slotId();
+        Long calendarId = userService.findPersonalCalendarId(userId).orElse(null);
+        rejectIfTaken(calendarId, slotId);
+        if (mode == BookingMode.PIPELINED) {
+            // the pipeline rejects same-slot duplicates itself; the BOOKED event marks the slot taken on commit
+            return bookingPipeline.schedule(userId, req);
+        }
+
+        ReentrantLock lock = stripeFor(slotId);
+        acquire(lock, slotId);
+        try {
+            rejectIfTaken(calendarId, slotId);
+            Meeting meeting = meetingService.schedule(userId, req);
+            // committed, and the claim only matches the booker's own calendar
+            takenSlots.put(slotId, calendarId);
+            return meeting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onSlotChanged(SlotChangedEvent event) {
+        switch (event.type()) {
+            case BOOKED -> takenSlots.put(event.slotId(), event.calendarId());
+            case DELETED -> takenSlots.invalidate(event.slotId());
+            case STATUS_CHANGED -> {
+                if (event.status() == SlotStatus.FREE) takenSlots.invalidate(event.slotId());
+            }
+            default -> {
+            }
+        }
+    }
+
+    private static String outcomeOf(RuntimeException ex) {
+        if (ex instanceof OverlapConflictException) return "conflict";
+        if (ex instanceof NotFoundException) return "not_found";
+        return "error";
+    }
+
+    private void rejectIfTaken(Long calendarId, Long slotId) {
+        Long slotCalendarId = takenSlots.getIfPresent(slotId);
+        if (slotCalendarId != null && slotCalendarId.equals(calendarId)) {
+            throw new OverlapConflictException(SLOT_NOT_AVAILABLE);
+        }
+    }
+
+    private void acquire(ReentrantLock lock, Long slotId) {
+        try {
+            if (!lock.tryLock(lockTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Timed out waiting to book slot id={}", slotId);
+                throw new OverlapConflictException("Slot is being booked by another request");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new OverlapConflictException("Slot is being booked by another request");
+        }
+    }
+
+    private ReentrantLock stripeFor(Long slotId) {
+        int h = Long.hashCode(slotId);
+        return stripes[(h ^ (h >>> 16)) & (stripes.length - 1)];
+    }
+}
@@ -0,0 +1,17 @@
+package com.org.mini_doodle.service;
+
+/**
+ * How {@link BookingCoordinator} runs bookings, selected with {@code mini-doodle.booking.mode}.
+ */
+public enum BookingMode {
+
+    /**
+     * Each booking runs its own transaction under a per-slot lock stripe.
+     */
+    DIRECT,
+
+    /**
+     * Bookings are queued per calendar and committed in small batches by {@link BookingPipeline}.
+     */
+    PIPELINED
+}
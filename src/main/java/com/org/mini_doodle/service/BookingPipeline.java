@@ -0,0 +1,221 @@
+package com.org.mini_doodle.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.org.mini_doodle.domain.Meeting;
+import com.org.mini_doodle.dto.request.ScheduleMeetingRequest;
+import com.org.mini_doodle.exception.OverlapConflictException;
+import com.org.mini_doodle.service.MeetingService.BatchBooking;
+import com.org.mini_doodle.service.MeetingService.BatchOutcome;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Group commit for booking bursts. Requests are queued per calendar, and one writer at a time drains each queue.
+ * The writer commits them in batches of up to {@code mini-doodle.booking.pipeline.batch-size}, one transaction per
+ * batch. A second booking of a slot already in the batch is carried over to the next batch, and rejected in memory
+ * once the first one has booked the slot. Callers block until their own booking
+ * is decided but hold no connection while they wait, so queued bookings are not limited by the pool size.
+ *
+ * <p>Each slot is still claimed by its own conditional update. If a queue is evicted while a writer drains it, a
+ * second writer for that calendar may briefly run, and the claim still lets only one booking win. When a whole batch
+ * fails to commit, its bookings are retried one by one through {@link MeetingService#schedule}.
+ *
+ * <p>Used by {@link BookingCoordinator} when {@code mini-doodle.booking.mode=pipelined}. Nothing is queued and no
+ * writer thread exists until then.
+ */
+@Slf4j
+@Component
+public class BookingPipeline {
+
+    private final MeetingService meetingService;
+    private final UserService userService;
+    private final int batchSize;
+    private final Duration queueTimeout;
+    private final Cache<Long, CalendarQueue> queues;
+    private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+
+    public BookingPipeline(MeetingService meetingService, UserService userService,
+                           @Value("${mini-doodle.booking.pipeline.batch-size:32}") int batchSize,
+                           @Value("${mini-doodle.booking.pipeline.queue-timeout:PT5S}") Duration queueTimeout) {
+        this.meetingService = meetingService;
+        this.userService = userService;
+        this.batchSize = batchSize;
+        this.queueTimeout = queueTimeout;
+        this.queues = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMinutes(1))
+                .build();
+    }
+
+    /**
+     * Queues the booking on the caller's calendar and waits for its outcome. A user without a calendar is booked
+     * directly so the usual not-found or forbidden response is returned.
+     */
+    public Meeting schedule(Long userId, ScheduleMeetingRequest req) {
+        Long calendarId = userService.findPersonalCalendarId(userId).orElse(null);
+        if (calendarId == null) return meetingService.schedule(userId, req);
+
+        PendingBooking booking = new PendingBooking(new BatchBooking(userId, req));
+        CalendarQueue queue = queueFor(calendarId);
+        queue.pending().add(booking);
+        if (queue.draining().compareAndSet(false, true)) {
+            writers.execute(() -> drain(queue));
+        }
+        return await(booking);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        writers.close();
+    }
+
+    private CalendarQueue queueFor(Long calendarId) {
+        CalendarQueue queue = queues.getIfPresent(calendarId);
+        if (queue != null) return queue;
+        CalendarQueue created = new CalendarQueue(new ConcurrentLinkedQueue<>(), new AtomicBoolean());
+        CalendarQueue raced = queues.asMap().putIfAbsent(calendarId, created);
+        return raced != null ? raced : created;
+    }
+
+    /**
+     * Runs until the queue is empty. The draining flag is cleared before the final emptiness check, so a booking
+     * added in between either is seen here or starts a new writer.
+     */
+    private void drain(CalendarQueue queue) {
+        Deque<PendingBooking> deferred = new ArrayDeque<>();
+        do {
+            List<PendingBooking> batch;
+            while (!(batch = nextBatch(queue.pending(), deferred)).isEmpty()) {
+                rejectBooked(deferred, commit(batch));
+            }
+            queue.draining().set(false);
+        } while (!queue.pending().isEmpty() && queue.draining().compareAndSet(false, true));
+    }
+
+    /**
+     * Takes carried-over bookings first, then queued ones, at most one booking per slot. Whether a duplicate may still
+     * win depends on the outcome of the booking ahead of it, so it waits in {@code deferred} instead of being rejected.
+     */
+    private List<PendingBooking> nextBatch(Queue<PendingBooking> pending, Deque<PendingBooking> deferred) {
+        List<PendingBooking> batch = new ArrayList<>(batchSize);
+        List<PendingBooking> carried = new ArrayList<>();
+        Set<Long> slotIds = new HashSet<>();
+        PendingBooking booking;
+        while (batch.size() < batchSize && (booking = deferred.poll()) != null) {
+            (slotIds.add(slotId(booking)) ? batch : carried).add(booking);
+        }
+        while (batch.size() < batchSize && (booking = pending.poll()) != null) {
+            if (!booking.started().compareAndSet(false, true)) continue; // caller gave up waiting
+            (slotIds.add(slotId(booking)) ? batch : carried).add(booking);
+        }
+        // queued bookings are only taken once deferred is empty, so this keeps arrival order
+        carried.addAll(deferred);
+        deferred.clear();
+        deferred.addAll(carried);
+        return batch;
+    }
+
+    private static void rejectBooked(Deque<PendingBooking> deferred, Set<Long> bookedSlotIds) {
+        for (Iterator<PendingBooking> it = deferred.iterator(); it.hasNext(); ) {
+            PendingBooking booking = it.next();
+            if (bookedSlotIds.contains(slotId(booking))) {
+                booking.result().completeExceptionally(new OverlapConflictException("Slot not available"));
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Completes every booking of the batch and returns the slots it booked.
+     */
+    private Set<Long> commit(List<PendingBooking> batch) {
+        List<BatchOutcome> outcomes;
+        try {
+            outcomes = meetingService.scheduleBatch(batch.stream().map(PendingBooking::booking).toList());
+        } catch (RuntimeException ex) {
+            log.warn("Batch of {} bookings failed to commit, retrying individually: {}", batch.size(), ex.getMessage());
+            Set<Long> booked = new HashSet<>();
+            for (PendingBooking pending : batch) {
+                if (commitAlone(pending)) booked.add(slotId(pending));
+            }
+            return booked;
+        }
+        Set<Long> booked = new HashSet<>();
+        for (int i = 0; i < batch.size(); i++) {
+            BatchOutcome outcome = outcomes.get(i);
+            if (outcome.failure() == null) {
+                batch.get(i).result().complete(outcome.meeting());
+                booked.add(slotId(batch.get(i)));
+            } else {
+                batch.get(i).result().completeExceptionally(outcome.failure());
+            }
+        }
+        return booked;
+    }
+
+    private boolean commitAlone(PendingBooking pending) {
+        try {
+            pending.result().complete(meetingService.schedule(pending.booking().userId(), pending.booking().request()));
+            return true;
+        } catch (RuntimeException ex) {
+            pending.result().completeExceptionally(ex);
+            return false;
+        }
+    }
+
+    private static Long slotId(PendingBooking booking) {
+        return booking.booking().request().slotId();
+    }
+
+    /**
+     * Gives up only while the booking is still queued. Once a writer has taken it, the caller waits for the outcome
+     * so it is never told a booking failed that is about to commit.
+     */
+    private Meeting await(PendingBooking booking) {
+        try {
+            try {
+                return booking.result().get(queueTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException ex) {
+                if (booking.started().compareAndSet(false, true)) {
+                    throw new OverlapConflictException("Slot is being booked by another request");
+                }
+                return booking.result().get();
+            }
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new OverlapConflictException("Slot is being booked by another request");
+        }
+    }
+
+    private record CalendarQueue(Queue<PendingBooking> pending, AtomicBoolean draining) {
+    }
+
+    private record PendingBooking(BatchBooking booking, CompletableFuture<Meeting> result, AtomicBoolean started) {
+        PendingBooking(BatchBooking booking) {
+            this(booking, new CompletableFuture<>(), new AtomicBoolean());
+        }
+    }
+}
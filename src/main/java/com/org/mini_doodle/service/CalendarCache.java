@@ -0,0 +1,74 @@
+package com.org.mini_doodle.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.org.mini_doodle.event.CalendarCreatedEvent;
+import com.org.mini_doodle.repository.CalendarRepository;
+import com.org.mini_doodle.repository.projection.CalendarOwner;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded owner id to personal calendar id mapping. The mapping never changes once a user exists and users are never
+ * deleted, so entries are only dropped by size-based eviction.
+ */
+@Component
+public class CalendarCache implements MeterBinder {
+
+    private final CalendarRepository calendarRepository;
+    private final Cache<Long, Long> calendarIdsByOwner;
+
+    public CalendarCache(CalendarRepository calendarRepository,
+                         @Value("${mini-doodle.calendar-cache.maximum-size:100000}") long maximumSize) {
+        this.calendarRepository = calendarRepository;
+        this.calendarIdsByOwner = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * A miss is loaded outside the cache rather than through {@code get(key, loader)}, whose loader runs inside a
+     * map bin lock and would pin a virtual thread for the whole query.
+     */
+    public Optional<Long> findCalendarId(Long ownerId) {
+        Long calendarId = calendarIdsByOwner.getIfPresent(ownerId);
+        if (calendarId != null) return Optional.of(calendarId);
+        Optional<Long> loaded = calendarRepository.findIdByOwnerId(ownerId);
+        loaded.ifPresent(id -> calendarIdsByOwner.put(ownerId, id));
+        return loaded;
+    }
+
+    /**
+     * Resolves many owners at once; owners without a calendar are absent from the result. Misses are loaded with a
+     * single IN query.
+     */
+    public Map<Long, Long> findCalendarIds(Set<Long> ownerIds) {
+        return calendarIdsByOwner.getAll(ownerIds, missing -> calendarRepository.findCalendarIdsByOwnerIds(Set.copyOf(missing)).stream()
+                .collect(Collectors.toMap(CalendarOwner::ownerId, CalendarOwner::calendarId)));
+    }
+
+    @TransactionalEventListener
+    public void onCalendarCreated(CalendarCreatedEvent event) {
+        calendarIdsByOwner.put(event.ownerId(), event.calendarId());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, calendarIdsByOwner, "calendar-ids");
+    }
+
+    public CacheStats stats() {
+        return calendarIdsByOwner.stats();
+    }
+}
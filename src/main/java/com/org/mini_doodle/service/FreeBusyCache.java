@@ -0,0 +1,78 @@
+package com.org.mini_doodle.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.org.mini_doodle.dto.response.FreeBusyResponse;
+import com.org.mini_doodle.event.SlotChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Free/busy results keyed by calendar, calendar version and requested range. A committed slot change moves its
+ * calendar to a new version, so every cached range of that calendar stops matching at once while other calendars
+ * keep their entries. Superseded entries are left to size and TTL eviction.
+ */
+@Component
+public class FreeBusyCache implements MeterBinder {
+
+    private final Cache<Key, FreeBusyResponse> results;
+    private final Cache<Long, Long> versions;
+    // Versions are drawn from one counter so a calendar whose version entry was evicted can never reuse an old value.
+    private final AtomicLong nextVersion = new AtomicLong();
+
+    public FreeBusyCache(@Value("${mini-doodle.free-busy-cache.maximum-size:10000}") long maximumSize,
+                         @Value("${mini-doodle.free-busy-cache.ttl:PT5M}") Duration ttl) {
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    /**
+     * Concurrent misses for the same key each compute the result; loading through {@code get(key, loader)} would
+     * coalesce them but runs the query inside a map bin lock, pinning virtual threads.
+     */
+    public FreeBusyResponse get(Long calendarId, OffsetDateTime from, OffsetDateTime to, Supplier<FreeBusyResponse> loader) {
+        Key key = new Key(calendarId, versions.get(calendarId, id -> nextVersion.incrementAndGet()), from, to);
+        FreeBusyResponse cached = results.getIfPresent(key);
+        if (cached != null) return cached;
+        FreeBusyResponse loaded = loader.get();
+        results.put(key, loaded);
+        return loaded;
+    }
+
+    @TransactionalEventListener
+    public void onSlotChanged(SlotChangedEvent event) {
+        invalidate(event.calendarId());
+    }
+
+    public void invalidate(Long calendarId) {
+        versions.put(calendarId, nextVersion.incrementAndGet());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, results, "free-busy");
+    }
+
+    public CacheStats stats() {
+        return results.stats();
+    }
+
+    private record Key(Long calendarId, long version, OffsetDateTime from, OffsetDateTime to) {
+    }
+}
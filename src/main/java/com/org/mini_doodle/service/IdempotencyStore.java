@@ -0,0 +1,106 @@
+package com.org.mini_doodle.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.org.mini_doodle.exception.IdempotencyConflictException;
+import com.org.mini_doodle.exception.OverlapConflictException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the response of each request sent with an {@code Idempotency-Key}, so client retries replay it instead
+ * of running the operation again. A duplicate that arrives while the first request is still running waits for that
+ * result. Keys are scoped by operation and user and kept in a bounded in-memory cache, so replay is per instance.
+ * A failed request is forgotten, which lets the client retry it with the same key.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore implements MeterBinder {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final Cache<Key, Entry> entries;
+    private final Duration waitTimeout;
+
+    public IdempotencyStore(@Value("${mini-doodle.idempotency.maximum-size:100000}") long maximumSize,
+                            @Value("${mini-doodle.idempotency.ttl:PT24H}") Duration ttl,
+                            @Value("${mini-doodle.idempotency.wait-timeout:PT10S}") Duration waitTimeout) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.waitTimeout = waitTimeout;
+    }
+
+    /**
+     * Runs {@code action} once per key. A repeat with the same key and an equal request gets the first response;
+     * a repeat with a different request is rejected. Without a key the action simply runs.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, Long userId, String idempotencyKey, Object request, Supplier<T> action) {
+        if (idempotencyKey == null) return action.get();
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+
+        Key key = new Key(operation, userId, idempotencyKey);
+        Entry existing = entries.getIfPresent(key);
+        Entry entry = new Entry(request, new CompletableFuture<>());
+        if (existing == null) existing = entries.asMap().putIfAbsent(key, entry);
+        if (existing != null) return (T) await(existing, request, idempotencyKey);
+
+        try {
+            T response = action.get();
+            entry.response().complete(response);
+            return response;
+        } catch (RuntimeException ex) {
+            entries.asMap().remove(key, entry);
+            entry.response().completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    private Object await(Entry existing, Object request, String idempotencyKey) {
+        if (!Objects.equals(existing.request(), request)) {
+            throw new IdempotencyConflictException(HEADER + " was already used for a different request");
+        }
+        log.debug("Replaying response for {}={}", HEADER, idempotencyKey);
+        try {
+            return existing.response().get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new OverlapConflictException("A request with this " + HEADER + " is still in progress");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new OverlapConflictException("A request with this " + HEADER + " is still in progress");
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, entries, "idempotency");
+    }
+
+    private record Key(String operation, Long userId, String idempotencyKey) {
+    }
+
+    private record Entry(Object request, CompletableFuture<Object> response) {
+    }
+}
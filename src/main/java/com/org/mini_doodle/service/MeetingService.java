@@ -2,21 +2,33 @@ package com.org.mini_doodle.service;
 
 import com.org.mini_doodle.domain.*;
 import com.org.mini_doodle.dto.request.ScheduleMeetingRequest;
+import com.org.mini_doodle.event.SlotChangedEvent;
 import com.org.mini_doodle.exception.NotFoundException;
 import com.org.mini_doodle.exception.OverlapConflictException;
+import com.org.mini_doodle.exception.OwnershipViolationException;
 import com.org.mini_doodle.repository.MeetingRepository;
 import com.org.mini_doodle.repository.ParticipantRepository;
 import com.org.mini_doodle.repository.SlotRepository;
 import com.org.mini_doodle.repository.UserRepository;
+import com.org.mini_doodle.repository.projection.SlotOwnership;
 import com.org.mini_doodle.util.Ownership;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
+/**
+ * Books a meeting by claiming the slot with one conditional UPDATE and then inserting the meeting and its
+ * participants in batches. The slot entity is never loaded, so an uncontended booking costs a fixed number of
+ * statements regardless of participant count.
+ */
 @Slf4j
 @Service
 public class MeetingService {
@@ -25,24 +37,69 @@ public class MeetingService {
     private final MeetingRepository meetingRepository;
     private final UserRepository userRepository;
     private final ParticipantRepository participantRepository;
+    private final UserService userService;
+    private final SlotChangeSequence slotChangeSequence;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public MeetingService(SlotRepository slotRepository, MeetingRepository meetingRepository, UserRepository userRepository, ParticipantRepository participantRepository) {
+    public MeetingService(SlotRepository slotRepository, MeetingRepository meetingRepository, UserRepository userRepository,
+                          ParticipantRepository participantRepository, UserService userService,
+                          SlotChangeSequence slotChangeSequence, ApplicationEventPublisher eventPublisher) {
         this.slotRepository = slotRepository;
         this.meetingRepository = meetingRepository;
         this.userRepository = userRepository;
         this.participantRepository = participantRepository;
+        this.userService = userService;
+        this.slotChangeSequence = slotChangeSequence;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
     public Meeting schedule(Long userId, ScheduleMeetingRequest req) {
-        Slot slot = findAndValidateSlot(userId,req.slotId());
-        Meeting meeting = createMeeting(req, slot);
-        addParticipants(meeting, req.participantUserIds());
-        markSlotAsBusy(slot, meeting);
+        Long calendarId = claimSlot(userId, req.slotId());
+        Set<Long> participantIds = resolveParticipantIds(req.participantUserIds());
+        Meeting meeting = book(calendarId, req, participantIds);
         log.info("Booking meeting for slot id={} by user={}", req.slotId(), userId);
         return meeting;
     }
 
+    /**
+     * Books a batch of requests in one transaction for {@link BookingPipeline}. Participants of the whole batch are
+     * checked with one query. A booking that fails is reported in its outcome before it writes anything, so the rest
+     * of the batch still commits.
+     */
+    @Transactional
+    public List<BatchOutcome> scheduleBatch(List<BatchBooking> bookings) {
+        Set<Long> allParticipantIds = new HashSet<>();
+        bookings.forEach(booking -> allParticipantIds.addAll(booking.request().participantUserIds()));
+        Set<Long> existingUserIds = new HashSet<>(userRepository.findExistingIds(allParticipantIds));
+
+        List<BatchOutcome> outcomes = new ArrayList<>(bookings.size());
+        for (BatchBooking booking : bookings) {
+            outcomes.add(scheduleInBatch(booking, existingUserIds));
+        }
+        log.info("Booked batch of {} meetings", bookings.size());
+        return outcomes;
+    }
+
+    private BatchOutcome scheduleInBatch(BatchBooking booking, Set<Long> existingUserIds) {
+        ScheduleMeetingRequest req = booking.request();
+        try {
+            Set<Long> participantIds = new LinkedHashSet<>(req.participantUserIds());
+            ensureParticipantsExist(participantIds, existingUserIds);
+            Long calendarId = claimSlot(booking.userId(), req.slotId());
+            return new BatchOutcome(book(calendarId, req, participantIds), null);
+        } catch (OverlapConflictException | NotFoundException | OwnershipViolationException ex) {
+            return new BatchOutcome(null, ex);
+        }
+    }
+
+    private Meeting book(Long calendarId, ScheduleMeetingRequest req, Set<Long> participantIds) {
+        Meeting meeting = createMeeting(req, slotRepository.getReferenceById(req.slotId()));
+        addParticipants(meeting, participantIds);
+        eventPublisher.publishEvent(SlotChangedEvent.booked(calendarId, req.slotId()));
+        return meeting;
+    }
+
     private Meeting createMeeting(ScheduleMeetingRequest req, Slot slot) {
         Meeting meeting = Meeting.builder()
                 .slot(slot)
@@ -53,44 +110,60 @@ public class MeetingService {
     }
 
 
-    private Slot findAndValidateSlot(Long userId, Long slotId) {
-        Slot slot = slotRepository.findById(slotId)
-                .orElseThrow(() -> new NotFoundException("Slot not found"));
-
-        Ownership.ensureSlotBelongs(userId, slot);
-
-        if (slot.getStatus() == SlotStatus.BUSY || slot.getMeeting() != null) {
-            throw new OverlapConflictException("Slot not available");
+    /**
+     * Returns the calendar id of the claimed slot. When the claim matches no row, the slot is read once to tell a
+     * missing or foreign slot from one that is already taken. Only a won claim is recorded for delta sync, which
+     * advances the calendar's change sequence at commit, so losers never lock the calendar row; a batch advances it
+     * once.
+     */
+    private Long claimSlot(Long userId, Long slotId) {
+        Long calendarId = userService.findPersonalCalendarId(userId).orElse(null);
+        if (calendarId != null && slotRepository.claimIfFree(slotId, calendarId) == 1) {
+            slotChangeSequence.recordUpdate(calendarId, slotId);
+            return calendarId;
         }
 
-        return slot;
+        SlotOwnership ownership = slotRepository.findOwnershipById(slotId)
+                .orElseThrow(() -> new NotFoundException("Slot not found"));
+        Ownership.ensureSameCalendar(calendarId, ownership.calendarId());
+        throw new OverlapConflictException("Slot not available");
     }
 
-    private void addParticipants(Meeting meeting, List<Long> participantUserIds) {
+    private Set<Long> resolveParticipantIds(List<Long> participantUserIds) {
         Set<Long> uniqueUserIds = new LinkedHashSet<>(participantUserIds);
-        List<Participant> participants = createParticipantList(meeting, uniqueUserIds);
-        participantRepository.saveAll(participants);
+        ensureParticipantsExist(uniqueUserIds, userRepository.findExistingIds(uniqueUserIds));
+        return uniqueUserIds;
     }
 
-    private List<Participant> createParticipantList(Meeting meeting, Set<Long> userIds) {
-        return userIds.stream()
+    private static void ensureParticipantsExist(Set<Long> userIds, Collection<Long> existingUserIds) {
+        Set<Long> missing = new LinkedHashSet<>(userIds);
+        existingUserIds.forEach(missing::remove);
+        if (!missing.isEmpty()) {
+            throw new NotFoundException("Participant users not found: " + missing);
+        }
+    }
+
+    private void addParticipants(Meeting meeting, Set<Long> userIds) {
+        List<Participant> participants = userIds.stream()
                 .map(userId -> createParticipant(meeting, userId))
                 .toList();
+        meeting.setParticipants(new ArrayList<>(participants));
+        participantRepository.saveAll(participants);
     }
 
     private Participant createParticipant(Meeting meeting, Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Participant user not found: " + userId));
-
         return Participant.builder()
                 .meeting(meeting)
-                .user(user)
+                .user(userRepository.getReferenceById(userId))
                 .build();
     }
 
-    private void markSlotAsBusy(Slot slot, Meeting meeting) {
-        slot.setStatus(SlotStatus.BUSY);
-        slot.setMeeting(meeting);
-        slotRepository.save(slot);
+    public record BatchBooking(Long userId, ScheduleMeetingRequest request) {
+    }
+
+    /**
+     * Either the booked meeting or the reason the booking was rejected.
+     */
+    public record BatchOutcome(Meeting meeting, RuntimeException failure) {
     }
 }
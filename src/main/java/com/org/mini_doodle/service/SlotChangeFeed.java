@@ -0,0 +1,202 @@
+package com.org.mini_doodle.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.org.mini_doodle.dto.response.SlotChangeResponse;
+import com.org.mini_doodle.event.SlotChangedEvent;
+import com.org.mini_doodle.exception.NotFoundException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes committed slot changes to Server-Sent Events subscribers of each calendar. Connections are async servlet
+ * requests, so an idle subscriber holds no thread. Each subscriber has a bounded buffer that is written out by a
+ * virtual thread only while it has events, so a slow client never blocks the committing thread or other
+ * subscribers. A subscriber whose buffer overflows gets a {@code resync} event and is closed, and the client
+ * reloads the range before it reconnects.
+ */
+@Slf4j
+@Component
+public class SlotChangeFeed implements MeterBinder {
+
+    static final String RESYNC = "resync";
+
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final Duration timeout;
+    private final Map<Long, Set<Subscriber>> subscribersByCalendar = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("slot-feed-heartbeat").daemon().factory());
+
+    public SlotChangeFeed(UserService userService, ObjectMapper objectMapper,
+                          @Value("${mini-doodle.feed.buffer-size:64}") int bufferSize,
+                          @Value("${mini-doodle.feed.timeout:PT30M}") Duration timeout,
+                          @Value("${mini-doodle.feed.heartbeat:PT30S}") Duration heartbeat) {
+        this.userService = userService;
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        heartbeats.scheduleAtFixedRate(this::heartbeat, heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        Long calendarId = userService.findPersonalCalendarId(userId)
+                .orElseThrow(() -> new NotFoundException("Calendar not found for user: " + userId));
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        subscribe(calendarId, emitter);
+        return emitter;
+    }
+
+    void subscribe(Long calendarId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(calendarId, emitter);
+        subscribersByCalendar.compute(calendarId, (id, subscribers) -> {
+            Set<Subscriber> set = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+            set.add(subscriber);
+            return set;
+        });
+        subscriberCount.incrementAndGet();
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> {
+            unsubscribe(subscriber);
+            emitter.complete();
+        });
+        emitter.onError(ex -> unsubscribe(subscriber));
+    }
+
+    @TransactionalEventListener
+    public void onSlotChanged(SlotChangedEvent event) {
+        Set<Subscriber> subscribers = subscribersByCalendar.get(event.calendarId());
+        if (subscribers == null) return;
+        // serialized once for all subscribers; builders are not reusable, so each gets its own
+        String name = event.type().name().toLowerCase(Locale.ROOT);
+        String json = toJson(SlotChangeResponse.from(event));
+        subscribers.forEach(subscriber -> subscriber.offer(SseEmitter.event().name(name).data(json)));
+    }
+
+    int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("scheduling.feed.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open slot change feed connections")
+                .register(registry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+        subscribersByCalendar.values().forEach(subscribers -> subscribers.forEach(s -> s.emitter().complete()));
+        writers.close();
+    }
+
+    private void heartbeat() {
+        subscribersByCalendar.values().forEach(subscribers ->
+                subscribers.forEach(s -> s.offer(SseEmitter.event().comment("ping"))));
+    }
+
+    private String toJson(SlotChangeResponse change) {
+        try {
+            return objectMapper.writeValueAsString(change);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (!subscriber.closed().compareAndSet(false, true)) return;
+        subscribersByCalendar.computeIfPresent(subscriber.calendarId(), (id, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+        subscriberCount.decrementAndGet();
+    }
+
+    private final class Subscriber {
+
+        private final Long calendarId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEventBuilder> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(Long calendarId, SseEmitter emitter) {
+            this.calendarId = calendarId;
+            this.emitter = emitter;
+        }
+
+        Long calendarId() {
+            return calendarId;
+        }
+
+        SseEmitter emitter() {
+            return emitter;
+        }
+
+        AtomicBoolean closed() {
+            return closed;
+        }
+
+        void offer(SseEventBuilder message) {
+            if (closed.get()) return;
+            if (!buffer.offer(message)) {
+                log.debug("Slot change feed subscriber of calendar id={} fell behind, asking it to resync", calendarId);
+                buffer.clear();
+                buffer.offer(SseEmitter.event().name(RESYNC).data(""));
+                unsubscribe(this);
+            }
+            if (draining.compareAndSet(false, true)) {
+                writers.execute(this::drain);
+            }
+        }
+
+        /**
+         * Same hand-off as {@link BookingPipeline}: the flag is cleared before the last emptiness check, so an event
+         * offered in between is either written here or starts a new writer.
+         */
+        private void drain() {
+            do {
+                SseEventBuilder message;
+                while ((message = buffer.poll()) != null) {
+                    try {
+                        emitter.send(message);
+                    } catch (IOException | IllegalStateException ex) {
+                        buffer.clear();
+                        unsubscribe(this);
+                        emitter.completeWithError(ex);
+                        return;
+                    }
+                }
+                if (closed.get()) emitter.complete();
+                draining.set(false);
+            } while (!buffer.isEmpty() && draining.compareAndSet(false, true));
+        }
+    }
+}
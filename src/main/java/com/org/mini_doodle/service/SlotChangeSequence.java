@@ -0,0 +1,128 @@
+package com.org.mini_doodle.service;
+
+import com.org.mini_doodle.exception.NotFoundException;
+import com.org.mini_doodle.repository.CalendarRepository;
+import com.org.mini_doodle.repository.SlotChangeRepository;
+import com.org.mini_doodle.repository.SlotRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Per-calendar change sequence for delta sync. Writers record the slots they inserted, updated or deleted; when the
+ * transaction commits, the calendar's counter is advanced once and every recorded slot's row in the change log is
+ * moved to the new value, or added for a new slot, so one transaction is one change set.
+ *
+ * <p>Advancing the counter locks the calendar row until commit. Change sets of one calendar therefore commit in
+ * sequence order, and a reader that sees sequence N has also seen every change set before it. The commit step runs
+ * after the transaction holds every slot row it writes and then only writes the change log, whose rows of a calendar
+ * are written under that lock alone. The calendar row is thus always taken last, no write path waits for a slot while
+ * holding it, and slot rows are written once per transaction, so a Postgres exclusion constraint is not re-checked
+ * under the lock. Bookings of different slots only queue for the commit step itself.
+ */
+@Component
+public class SlotChangeSequence {
+
+    /** Slot ids per change log statement, well below the bind parameter limit of the drivers. */
+    private static final int CHUNK = 1000;
+
+    private final CalendarRepository calendarRepository;
+    private final SlotRepository slotRepository;
+    private final SlotChangeRepository slotChangeRepository;
+
+    public SlotChangeSequence(CalendarRepository calendarRepository, SlotRepository slotRepository,
+                              SlotChangeRepository slotChangeRepository) {
+        this.calendarRepository = calendarRepository;
+        this.slotRepository = slotRepository;
+        this.slotChangeRepository = slotChangeRepository;
+    }
+
+    /**
+     * Records slots saved through the entity in this transaction; they have no change log row yet.
+     */
+    public void recordInserts(Long calendarId, Collection<Long> slotIds) {
+        pending(calendarId).inserted().addAll(slotIds);
+    }
+
+    /**
+     * Records an existing slot a conditional write matched.
+     */
+    public void recordUpdate(Long calendarId, Long slotId) {
+        pending(calendarId).updated().add(slotId);
+    }
+
+    public void recordDelete(Long calendarId, Long slotId) {
+        pending(calendarId).deleted().add(slotId);
+    }
+
+    public long current(Long calendarId) {
+        return calendarRepository.findChangeSeq(calendarId)
+                .orElseThrow(() -> new NotFoundException("Calendar not found: " + calendarId));
+    }
+
+    private CalendarChanges pending(Long calendarId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Slot changes must be recorded inside a transaction");
+        }
+        @SuppressWarnings("unchecked")
+        Map<Long, CalendarChanges> changes = (Map<Long, CalendarChanges>) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            // ordered by calendar id, so transactions that write several calendars lock their rows in one order
+            Map<Long, CalendarChanges> recorded = new TreeMap<>();
+            TransactionSynchronizationManager.bindResource(this, recorded);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    commit(recorded);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(SlotChangeSequence.this);
+                }
+            });
+            changes = recorded;
+        }
+        return changes.computeIfAbsent(calendarId,
+                id -> new CalendarChanges(new LinkedHashSet<>(), new LinkedHashSet<>(), new LinkedHashSet<>()));
+    }
+
+    private void commit(Map<Long, CalendarChanges> changes) {
+        // slots saved through the entity are inserted before the change log reads them
+        slotRepository.flush();
+        changes.forEach((calendarId, recorded) -> {
+            calendarRepository.advanceChangeSeq(calendarId);
+            Set<Long> existing = new LinkedHashSet<>(recorded.updated());
+            existing.addAll(recorded.deleted());
+            int advanced = chunks(existing).stream()
+                    .mapToInt(slotIds -> slotChangeRepository.advance(slotIds, calendarId))
+                    .sum();
+            if (advanced < existing.size()) {
+                // slots written before the change log existed have no row yet
+                chunks(recorded.updated()).forEach(slotIds -> slotChangeRepository.recordWritten(slotIds, calendarId));
+                recorded.deleted().forEach(slotId -> slotChangeRepository.recordDeleted(slotId, calendarId));
+            }
+            chunks(recorded.inserted()).forEach(slotIds -> slotChangeRepository.recordWritten(slotIds, calendarId));
+        });
+    }
+
+    private static List<List<Long>> chunks(Collection<Long> slotIds) {
+        List<Long> all = new ArrayList<>(slotIds);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += CHUNK) {
+            chunks.add(all.subList(from, Math.min(from + CHUNK, all.size())));
+        }
+        return chunks;
+    }
+
+    private record CalendarChanges(Set<Long> inserted, Set<Long> updated, Set<Long> deleted) {
+    }
+}
@@ -0,0 +1,218 @@
+package com.org.mini_doodle.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.org.mini_doodle.event.SlotChangedEvent;
+import com.org.mini_doodle.repository.SlotRepository;
+import com.org.mini_doodle.repository.projection.SlotBounds;
+import com.org.mini_doodle.util.EpochTimes;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory per-calendar view of slot boundaries used to answer overlap checks without a
+ * database round trip. Each calendar is loaded lazily on first use and kept current from
+ * committed {@link SlotChangedEvent}s.
+ *
+ * <p>Only this instance's events reach the index, so it is correct for a single instance only.
+ * Slots written elsewhere, by another instance or by hand, are seen once the calendar is
+ * reloaded {@code mini-doodle.slots.index.expire-after-write} after it was loaded. Deployments
+ * with more than one instance should use {@code mini-doodle.slots.overlap-mode=exclusion}.
+ */
+@Slf4j
+@Component
+public class SlotIntervalIndex implements MeterBinder {
+
+    private final SlotRepository slotRepository;
+    private final Cache<Long, CalendarIntervals> calendars;
+
+    public SlotIntervalIndex(SlotRepository slotRepository,
+                             @Value("${mini-doodle.slots.index.maximum-size:10000}") long maximumSize,
+                             @Value("${mini-doodle.slots.index.expire-after-write:PT5M}") Duration expireAfterWrite) {
+        this.slotRepository = slotRepository;
+        this.calendars = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    public boolean overlaps(Long calendarId, OffsetDateTime start, OffsetDateTime end, Long excludeSlotId) {
+        CalendarIntervals intervals = loaded(calendarId);
+        long exclude = excludeSlotId == null ? Long.MIN_VALUE : excludeSlotId;
+        return intervals.overlaps(EpochTimes.toMicros(start), EpochTimes.toMicros(end), exclude);
+    }
+
+    @TransactionalEventListener
+    public void onSlotChanged(SlotChangedEvent event) {
+        CalendarIntervals intervals = calendars.getIfPresent(event.calendarId());
+        if (intervals == null) {
+            return;
+        }
+        switch (event.type()) {
+            case CREATED, MODIFIED -> intervals.put(event.slotId(),
+                    EpochTimes.toMicros(event.startTime()), EpochTimes.toMicros(event.endTime()));
+            case DELETED -> intervals.remove(event.slotId());
+            default -> {
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, calendars, "slot-interval-index");
+    }
+
+    /**
+     * The entry is created empty and filled outside the cache, like {@link CalendarCache}, so the query never runs
+     * inside a map bin lock. Expiry counts from creation; events update the entry in place and do not extend it.
+     */
+    private CalendarIntervals loaded(Long calendarId) {
+        CalendarIntervals intervals = calendars.getIfPresent(calendarId);
+        if (intervals == null) {
+            CalendarIntervals created = new CalendarIntervals();
+            CalendarIntervals raced = calendars.asMap().putIfAbsent(calendarId, created);
+            intervals = raced != null ? raced : created;
+        }
+        intervals.ensureLoaded(() -> slotRepository.findBoundsByCalendarId(calendarId));
+        return intervals;
+    }
+
+    /**
+     * Slots sorted by start in parallel primitive arrays. {@code maxEnd[i]} is the largest end among
+     * slots {@code 0..i}, which bounds the backwards scan even if the stored slots overlap each other.
+     */
+    static final class CalendarIntervals {
+
+        private static final int INITIAL_CAPACITY = 16;
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private boolean loaded;
+        private long[] ids = new long[INITIAL_CAPACITY];
+        private long[] starts = new long[INITIAL_CAPACITY];
+        private long[] ends = new long[INITIAL_CAPACITY];
+        private long[] maxEnd = new long[INITIAL_CAPACITY];
+        private int size;
+
+        void ensureLoaded(Supplier<List<SlotBounds>> loader) {
+            lock.readLock().lock();
+            try {
+                if (loaded) return;
+            } finally {
+                lock.readLock().unlock();
+            }
+            lock.writeLock().lock();
+            try {
+                if (loaded) return;
+                List<SlotBounds> bounds = loader.get();
+                for (SlotBounds b : bounds) {
+                    insert(b.id(), EpochTimes.toMicros(b.startTime()), EpochTimes.toMicros(b.endTime()));
+                }
+                loaded = true;
+                log.debug("Loaded {} slot intervals into overlap index", bounds.size());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        boolean overlaps(long start, long end, long excludeId) {
+            lock.readLock().lock();
+            try {
+                for (int i = lastStartingBefore(end); i >= 0 && maxEnd[i] > start; i--) {
+                    if (ends[i] > start && ids[i] != excludeId) {
+                        return true;
+                    }
+                }
+                return false;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void put(long id, long start, long end) {
+            lock.writeLock().lock();
+            try {
+                if (!loaded) return;
+                removeById(id);
+                insert(id, start, end);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(long id) {
+            lock.writeLock().lock();
+            try {
+                if (!loaded) return;
+                removeById(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private int lastStartingBefore(long end) {
+            int lo = 0;
+            int hi = size - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (starts[mid] < end) lo = mid + 1;
+                else hi = mid - 1;
+            }
+            return hi;
+        }
+
+        private void insert(long id, long start, long end) {
+            if (size == starts.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                starts = Arrays.copyOf(starts, capacity);
+                ends = Arrays.copyOf(ends, capacity);
+                maxEnd = Arrays.copyOf(maxEnd, capacity);
+            }
+            int at = lastStartingBefore(start + 1) + 1;
+            int tail = size - at;
+            System.arraycopy(ids, at, ids, at + 1, tail);
+            System.arraycopy(starts, at, starts, at + 1, tail);
+            System.arraycopy(ends, at, ends, at + 1, tail);
+            ids[at] = id;
+            starts[at] = start;
+            ends[at] = end;
+            size++;
+            recomputeMaxEnd(at);
+        }
+
+        private void removeById(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    int tail = size - i - 1;
+                    System.arraycopy(ids, i + 1, ids, i, tail);
+                    System.arraycopy(starts, i + 1, starts, i, tail);
+                    System.arraycopy(ends, i + 1, ends, i, tail);
+                    size--;
+                    recomputeMaxEnd(i);
+                    return;
+                }
+            }
+        }
+
+        private void recomputeMaxEnd(int from) {
+            long running = from == 0 ? Long.MIN_VALUE : maxEnd[from - 1];
+            for (int i = from; i < size; i++) {
+                running = Math.max(running, ends[i]);
+                maxEnd[i] = running;
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.org.mini_doodle.service;
+
+/**
+ * How overlapping slots in one calendar are prevented, selected with {@code mini-doodle.slots.overlap-mode}.
+ */
+public enum SlotOverlapMode {
+
+    /**
+     * Checked in process against {@link SlotIntervalIndex} before the write.
+     */
+    INDEX,
+
+    /**
+     * Enforced by the Postgres exclusion constraint installed by
+     * {@link com.org.mini_doodle.repository.SlotExclusionConstraint}; writes are flushed and a violation is
+     * reported as an overlap.
+     */
+    EXCLUSION
+}
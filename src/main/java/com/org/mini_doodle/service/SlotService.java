@@ -4,33 +4,79 @@ import com.org.mini_doodle.domain.Calendar;
 import com.org.mini_doodle.domain.Slot;
 import com.org.mini_doodle.domain.SlotStatus;
 import com.org.mini_doodle.dto.request.CreateSlotRequest;
+import com.org.mini_doodle.dto.request.RecurringSlotRequest;
+import com.org.mini_doodle.dto.response.SlotChangesResponse;
+import com.org.mini_doodle.dto.response.SlotResponse;
+import com.org.mini_doodle.dto.response.SlotScrollResponse;
+import com.org.mini_doodle.event.SlotChangeType;
+import com.org.mini_doodle.event.SlotChangedEvent;
 import com.org.mini_doodle.exception.NotFoundException;
 import com.org.mini_doodle.exception.OverlapConflictException;
+import com.org.mini_doodle.observability.SchedulingMetrics;
+import com.org.mini_doodle.repository.SlotExclusionConstraint;
+import com.org.mini_doodle.repository.SlotChangeRepository;
 import com.org.mini_doodle.repository.SlotRepository;
+import com.org.mini_doodle.repository.projection.ChangedSlot;
+import com.org.mini_doodle.repository.projection.SlotOwnership;
+import com.org.mini_doodle.repository.projection.SlotView;
+import com.org.mini_doodle.util.ChangeCursor;
+import com.org.mini_doodle.util.EpochTimes;
 import com.org.mini_doodle.util.Ownership;
+import com.org.mini_doodle.util.SlotCursor;
 import com.org.mini_doodle.util.ValidationUtil;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.SQLException;
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 public class SlotService {
 
     private final SlotRepository slotRepository;
+    private final SlotChangeRepository slotChangeRepository;
     private final UserService userService;
+    private final SlotIntervalIndex slotIntervalIndex;
+    private final SlotChangeSequence slotChangeSequence;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SchedulingMetrics schedulingMetrics;
+    private final boolean databaseEnforcesOverlap;
     private static final long MIN_DURATION_MIN = 5;
     private static final long MAX_DURATION_MIN = 24 * 60;
+    private static final long MAX_RECURRENCE_DAYS = 366;
+    private static final int MAX_BULK_SLOTS = 5000;
+    private static final int MAX_SCROLL_SIZE = 500;
+    private static final int MAX_CHANGES_SIZE = 1000;
 
 
-    public SlotService(SlotRepository slotRepository, UserService userService) {
+    public SlotService(SlotRepository slotRepository, SlotChangeRepository slotChangeRepository, UserService userService,
+                       SlotIntervalIndex slotIntervalIndex, SlotChangeSequence slotChangeSequence,
+                       ApplicationEventPublisher eventPublisher, SchedulingMetrics schedulingMetrics,
+                       @Value("${mini-doodle.slots.overlap-mode:index}") SlotOverlapMode overlapMode) {
         this.slotRepository = slotRepository;
+        this.slotChangeRepository = slotChangeRepository;
         this.userService = userService;
+        this.slotIntervalIndex = slotIntervalIndex;
+        this.slotChangeSequence = slotChangeSequence;
+        this.eventPublisher = eventPublisher;
+        this.schedulingMetrics = schedulingMetrics;
+        this.databaseEnforcesOverlap = overlapMode == SlotOverlapMode.EXCLUSION;
     }
 
 
@@ -41,52 +87,209 @@ public class SlotService {
         OffsetDateTime endTime = req.startTime().plusMinutes(req.durationMinutes());
 
         validateSlotCreation(req.startTime(),endTime, req.durationMinutes());
-        ensureNoOverlaps(calendar,req.startTime(),endTime,null);
+        ensureNoOverlaps(calendar.getId(),req.startTime(),endTime,null);
 
-        Slot slot = buildSlot(calendar,req.startTime(),endTime);
+        Slot slot = buildSlot(calendar, req.startTime(), endTime);
+        writeEnforcingOverlap(() -> slotRepository.save(slot));
+        slotChangeSequence.recordInserts(calendar.getId(), List.of(slot.getId()));
+        eventPublisher.publishEvent(SlotChangedEvent.of(slot, SlotChangeType.CREATED));
         log.info("Created slot id={} for user={}", slot.getId(), userId);
-        return slotRepository.save(slot);
+        return slot;
+    }
+
+    @Transactional
+    public List<Slot> createRecurringSlotsForUser(Long userId, RecurringSlotRequest req) {
+        log.debug("User {} requested recurring slots {} to {} on {}", userId, req.startDate(), req.endDate(), req.daysOfWeek());
+        Calendar calendar = userService.getPersonalCalendar(userId);
+        List<Slot> slots = expandRecurrence(calendar, req);
+
+        long conflicts = databaseEnforcesOverlap ? 0 : slots.stream()
+                .filter(slot -> slotIntervalIndex.overlaps(calendar.getId(), slot.getStartTime(), slot.getEndTime(), null))
+                .count();
+        if (conflicts > 0) {
+            throw new OverlapConflictException(conflicts + " of " + slots.size() + " requested slots overlap existing slots");
+        }
+
+        List<Slot> saved = writeEnforcingOverlap(() -> slotRepository.saveAll(slots));
+        slotChangeSequence.recordInserts(calendar.getId(), saved.stream().map(Slot::getId).toList());
+        saved.forEach(slot -> eventPublisher.publishEvent(SlotChangedEvent.of(slot, SlotChangeType.CREATED)));
+        log.info("Created {} recurring slots for user={}", saved.size(), userId);
+        return saved;
     }
 
     @Transactional(readOnly = true)
-    public Page<Slot> querySlotsForUser(Long userId, OffsetDateTime from, OffsetDateTime to, SlotStatus status, Pageable pageable) {
+    public Page<SlotView> querySlotsForUser(Long userId, OffsetDateTime from, OffsetDateTime to, SlotStatus status, Pageable pageable) {
         Calendar calendar = userService.getPersonalCalendar(userId);
         ValidationUtil.ensureStartBeforeEnd(from, to);
 
-        if (status == null) return slotRepository.findByCalendarAndStartTimeBetween(calendar, from, to, pageable);
-        return slotRepository.findByCalendarAndStartTimeBetweenAndStatus(calendar, from, to, status, pageable);
+        if (status == null) return slotRepository.findViewsByCalendarId(calendar.getId(), from, to, pageable);
+        return slotRepository.findViewsByCalendarIdAndStatus(calendar.getId(), from, to, status, pageable);
     }
 
-    @Transactional
-    public Slot modifyTimes(Long userId, Long slotId, OffsetDateTime newStart, OffsetDateTime newEnd) {
-        Slot slot = findSlotAndEnsureOwnership(userId, slotId);
+    @Transactional(readOnly = true)
+    public SlotScrollResponse scrollSlotsForUser(Long userId, OffsetDateTime from, OffsetDateTime to, SlotStatus status,
+                                                 String cursor, int size) {
+        Calendar calendar = userService.getPersonalCalendar(userId);
+        ValidationUtil.ensureStartBeforeEnd(from, to);
+        if (size < 1 || size > MAX_SCROLL_SIZE) {
+            throw new IllegalArgumentException("Size must be between 1 and " + MAX_SCROLL_SIZE);
+        }
+
+        OffsetDateTime afterStart = from;
+        long afterId = Long.MIN_VALUE;
+        if (cursor != null) {
+            SlotCursor position = SlotCursor.decode(cursor);
+            afterStart = EpochTimes.fromMicros(position.startMicros(), from.getOffset());
+            afterId = position.id();
+        }
+
+        Limit limit = Limit.of(size + 1);
+        List<SlotView> rows = status == null
+                ? slotRepository.findViewsAfter(calendar.getId(), from, to, afterStart, afterId, limit)
+                : slotRepository.findViewsAfterWithStatus(calendar.getId(), from, to, status, afterStart, afterId, limit);
+
+        List<SlotView> page = rows.size() > size ? rows.subList(0, size) : rows;
+        String next = null;
+        if (rows.size() > size) {
+            SlotView last = page.getLast();
+            next = new SlotCursor(EpochTimes.toMicros(last.startTime()), last.id()).encode();
+        }
+        return new SlotScrollResponse(page.stream().map(SlotResponse::from).toList(), next);
+    }
+
+    /**
+     * Validates an export range and resolves the user's calendar before the streamed response is committed, so a
+     * bad range or unknown user is answered with its error status rather than an empty 200.
+     */
+    public Long calendarIdForExport(Long userId, OffsetDateTime from, OffsetDateTime to) {
+        ValidationUtil.ensureStartBeforeEnd(from, to);
+        return userService.findPersonalCalendarId(userId)
+                .orElseThrow(() -> new NotFoundException("Calendar not found for user: " + userId));
+    }
+
+    /**
+     * Pushes every slot of the range to {@code sink} in start order from a forward-only cursor, so memory use does
+     * not grow with the range. Must be consumed inside this call; the transaction keeps the cursor open.
+     */
+    @Transactional(readOnly = true)
+    public void exportSlots(Long calendarId, OffsetDateTime from, OffsetDateTime to, Consumer<SlotView> sink) {
+        try (Stream<SlotView> rows = slotRepository.streamViewsByCalendarId(calendarId, from, to)) {
+            rows.forEach(sink);
+        }
+    }
+
+    /**
+     * Delta sync. With {@code since} or a change cursor, the slots written or deleted after that position, read from
+     * the change log in {@code (changeSeq, slotId)} order so the cost follows churn, not calendar size. Without
+     * either, a snapshot of every live slot in id order that ends at the sequence read when it started. Reads stop
+     * at the sequence read first, so a change set that commits meanwhile is left for a later call. A page that ends
+     * on a change-set boundary returns {@code nextSince}; one that ends inside a change set or a snapshot returns
+     * {@code nextCursor} instead, so neither ever exceeds {@code limit}.
+     */
+    @Transactional(readOnly = true)
+    public SlotChangesResponse changesForUser(Long userId, Long since, String cursor, int limit) {
+        if (since != null && since < 0) {
+            throw new IllegalArgumentException("Since must not be negative");
+        }
+        if (since != null && cursor != null) {
+            throw new IllegalArgumentException("Pass either since or cursor");
+        }
+        if (limit < 1 || limit > MAX_CHANGES_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_CHANGES_SIZE);
+        }
+        ChangeCursor position = cursor == null ? null : ChangeCursor.decode(cursor);
+        Long calendarId = userService.findPersonalCalendarId(userId)
+                .orElseThrow(() -> new NotFoundException("Calendar not found for user: " + userId));
+        if (position == null && since == null) {
+            return snapshot(calendarId, slotChangeSequence.current(calendarId), Long.MIN_VALUE, limit);
+        }
+        if (position != null && position.snapshot()) {
+            return snapshot(calendarId, position.changeSeq(), position.slotId(), limit);
+        }
 
+        long upTo = slotChangeSequence.current(calendarId);
+        long afterSeq = position == null ? since : position.changeSeq();
+        long afterId = position == null ? Long.MAX_VALUE : position.slotId();
+        if (afterSeq > upTo) {
+            throw new IllegalArgumentException("Since is ahead of the latest change " + upTo + "; sync without since");
+        }
+        List<ChangedSlot> rows = slotChangeRepository.findChangesAfter(calendarId, afterSeq, afterId, upTo, Limit.of(limit + 1));
+        if (rows.size() <= limit) {
+            return SlotChangesResponse.of(rows, upTo, null, false);
+        }
+        List<ChangedSlot> page = rows.subList(0, limit);
+        ChangedSlot last = page.getLast();
+        if (rows.get(limit).changeSeq() > last.changeSeq()) {
+            return SlotChangesResponse.of(page, last.changeSeq(), null, true);
+        }
+        return SlotChangesResponse.of(page, null, new ChangeCursor(false, last.changeSeq(), last.id()).encode(), true);
+    }
+
+    private SlotChangesResponse snapshot(Long calendarId, long upTo, long afterId, int limit) {
+        List<SlotView> rows = slotRepository.findViewsByIdAfter(calendarId, afterId, Limit.of(limit + 1));
+        if (rows.size() <= limit) {
+            return SlotChangesResponse.snapshot(rows, upTo, null, false);
+        }
+        List<SlotView> page = rows.subList(0, limit);
+        return SlotChangesResponse.snapshot(page, null, new ChangeCursor(true, upTo, page.getLast().id()).encode(), true);
+    }
+
+    /**
+     * One conditional UPDATE scoped to the caller's calendar; only when it matches nothing is the slot read to
+     * report not-found or forbidden. In index mode the overlap check runs after the update and rolls it back.
+     */
+    @Transactional
+    public SlotView modifyTimes(Long userId, Long slotId, OffsetDateTime newStart, OffsetDateTime newEnd) {
         ValidationUtil.ensureStartBeforeEnd(newStart, newEnd);
-        ensureNoOverlaps(slot.getCalendar(), newStart, newEnd, slotId);
+        Long calendarId = userService.findPersonalCalendarId(userId).orElse(null);
 
-        slot.setStartTime(newStart);
-        slot.setEndTime(newEnd);
-        return slotRepository.save(slot);
+        int updated = 0;
+        if (calendarId != null) {
+            updated = writeEnforcingOverlap(() -> slotRepository.updateTimesIfOwned(slotId, calendarId, newStart, newEnd));
+        }
+        if (updated == 0) {
+            findOwnedSlot(calendarId, slotId);
+        }
+        ensureNoOverlaps(calendarId, newStart, newEnd, slotId);
+        slotChangeSequence.recordUpdate(calendarId, slotId);
+
+        SlotView saved = slotRepository.findViewById(slotId).orElseThrow(() -> new NotFoundException("Slot not found"));
+        eventPublisher.publishEvent(SlotChangedEvent.of(calendarId, saved, SlotChangeType.MODIFIED));
+        return saved;
     }
 
     @Transactional
-    public Slot markStatus(Long userId, Long slotId, SlotStatus status) {
-        Slot slot = findSlotAndEnsureOwnership(userId,slotId);
+    public SlotView markStatus(Long userId, Long slotId, SlotStatus status) {
+        Long calendarId = userService.findPersonalCalendarId(userId).orElse(null);
 
-        if (status == SlotStatus.FREE && slot.getMeeting() != null){
-            throw new OverlapConflictException("Cannot mark FREE: slot has a meeting");
+        if (calendarId == null || slotRepository.updateStatusIfOwned(slotId, calendarId, status) == 0) {
+            SlotOwnership ownership = findOwnedSlot(calendarId, slotId);
+            throw new OverlapConflictException(ownership.booked()
+                    ? "Cannot mark FREE: slot has a meeting" : "Slot was modified by another request");
         }
+        slotChangeSequence.recordUpdate(calendarId, slotId);
 
-        slot.setStatus(status);
+        SlotView saved = slotRepository.findViewById(slotId).orElseThrow(() -> new NotFoundException("Slot not found"));
+        eventPublisher.publishEvent(SlotChangedEvent.of(calendarId, saved, SlotChangeType.STATUS_CHANGED));
         log.info("Updated slot id={} for user={}", slotId, userId);
-        return slotRepository.save(slot);
+        return saved;
     }
 
+    /**
+     * A slot without a meeting is removed by one conditional DELETE. A booked slot is deleted through the entity
+     * so its meeting and participants are removed with it. Either way the deletion is recorded for delta sync.
+     */
     @Transactional
     public void deleteSlot(Long userId, Long slotId) {
-        findSlotAndEnsureOwnership(userId,slotId);
+        Long calendarId = userService.findPersonalCalendarId(userId).orElse(null);
+
+        if (calendarId == null || slotRepository.deleteUnbookedIfOwned(slotId, calendarId) == 0) {
+            findOwnedSlot(calendarId, slotId);
+            slotRepository.deleteById(slotId);
+        }
+        slotChangeSequence.recordDelete(calendarId, slotId);
+        eventPublisher.publishEvent(SlotChangedEvent.deleted(calendarId, slotId));
         log.info("Deleted slot id={} for user={}", slotId, userId);
-        slotRepository.deleteById(slotId);
     }
 
     private void validateSlotCreation(OffsetDateTime startTime, OffsetDateTime endTime, long durationMinutes) {
@@ -94,18 +297,74 @@ public class SlotService {
         ValidationUtil.ensureStartBeforeEnd(startTime, endTime);
     }
 
-    private void ensureNoOverlaps(Calendar calendar, OffsetDateTime start, OffsetDateTime end, Long excludeSlotId) {
-        List<Slot> overlaps = slotRepository.findOverlapping(calendar, start, end);
+    private List<Slot> expandRecurrence(Calendar calendar, RecurringSlotRequest req) {
+        ValidationUtil.ensureDurationWithin(req.durationMinutes(), MIN_DURATION_MIN, MAX_DURATION_MIN);
+        if (req.endDate().isBefore(req.startDate()) || ChronoUnit.DAYS.between(req.startDate(), req.endDate()) > MAX_RECURRENCE_DAYS) {
+            throw new IllegalArgumentException("End date must be on or after start date and within " + MAX_RECURRENCE_DAYS + " days");
+        }
+        if (!req.dayStart().isBefore(req.dayEnd())) {
+            throw new IllegalArgumentException("Day start must be before day end");
+        }
 
-        if (excludeSlotId != null) {
-            overlaps.removeIf(slot -> slot.getId().equals(excludeSlotId));
+        List<Slot> slots = new ArrayList<>();
+        for (LocalDate date = req.startDate(); !date.isAfter(req.endDate()); date = date.plusDays(1)) {
+            if (!req.daysOfWeek().contains(date.getDayOfWeek())) continue;
+            OffsetDateTime dayEnd = date.atTime(req.dayEnd()).atZone(req.timeZone()).toOffsetDateTime();
+            OffsetDateTime start = date.atTime(req.dayStart()).atZone(req.timeZone()).toOffsetDateTime();
+            OffsetDateTime end = start.plusMinutes(req.durationMinutes());
+            while (!end.isAfter(dayEnd)) {
+                if (slots.size() == MAX_BULK_SLOTS) {
+                    throw new IllegalArgumentException("Recurrence expands to more than " + MAX_BULK_SLOTS + " slots");
+                }
+                slots.add(buildSlot(calendar, start, end));
+                start = end;
+                end = start.plusMinutes(req.durationMinutes());
+            }
+        }
+        if (slots.isEmpty()) {
+            throw new IllegalArgumentException("Recurrence does not produce any slots");
         }
+        return slots;
+    }
 
-        if (!overlaps.isEmpty()) {
+    private void ensureNoOverlaps(Long calendarId, OffsetDateTime start, OffsetDateTime end, Long excludeSlotId) {
+        if (databaseEnforcesOverlap) return;
+        Timer.Sample sample = schedulingMetrics.start();
+        boolean overlaps = slotIntervalIndex.overlaps(calendarId, start, end, excludeSlotId);
+        schedulingMetrics.overlapChecked(sample, overlaps);
+        if (overlaps) {
             throw new OverlapConflictException("Overlapping slot exists");
         }
     }
 
+    /**
+     * In exclusion mode the constraint is only evaluated when the statement runs, so the write is flushed here and
+     * a violation is reported as an overlap instead of failing at commit.
+     */
+    private <T> T writeEnforcingOverlap(Supplier<T> write) {
+        if (!databaseEnforcesOverlap) return write.get();
+        try {
+            T result = write.get();
+            slotRepository.flush();
+            return result;
+        } catch (DataIntegrityViolationException ex) {
+            if (isExclusionViolation(ex)) {
+                throw new OverlapConflictException("Overlapping slot exists");
+            }
+            throw ex;
+        }
+    }
+
+    private static boolean isExclusionViolation(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql
+                    && SlotExclusionConstraint.EXCLUSION_VIOLATION_SQL_STATE.equals(sql.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private Slot buildSlot(Calendar calendar, OffsetDateTime startTime, OffsetDateTime endTime) {
         return Slot.builder()
                 .calendar(calendar)
@@ -115,11 +374,15 @@ public class SlotService {
                 .build();
     }
 
-    private Slot findSlotAndEnsureOwnership(Long userId, Long slotId) {
-        Slot slot = slotRepository.findById(slotId)
+    /**
+     * Explains a conditional write that matched no row: throws not-found or forbidden, or returns the slot's
+     * ownership when it is the caller's and a guard other than ownership rejected the write.
+     */
+    private SlotOwnership findOwnedSlot(Long calendarId, Long slotId) {
+        SlotOwnership ownership = slotRepository.findOwnershipById(slotId)
                 .orElseThrow(() -> new NotFoundException("Slot not found"));
-        Ownership.ensureSlotBelongs(userId, slot);
-        return slot;
+        Ownership.ensureSameCalendar(calendarId, ownership.calendarId());
+        return ownership;
     }
 
 }
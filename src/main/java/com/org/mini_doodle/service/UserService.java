@@ -2,23 +2,32 @@ package com.org.mini_doodle.service;
 
 import com.org.mini_doodle.domain.Calendar;
 import com.org.mini_doodle.domain.User;
+import com.org.mini_doodle.event.CalendarCreatedEvent;
 import com.org.mini_doodle.repository.CalendarRepository;
 import com.org.mini_doodle.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Optional;
+
 @Service
 public class UserService {
 
     private final UserRepository userRepository;
     private final CalendarRepository calendarRepository;
+    private final CalendarCache calendarCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     private static final String DEFAULT_CALENDAR_NAME = "Personal";
 
 
-    public UserService(UserRepository userRepository, CalendarRepository calendarRepository) {
+    public UserService(UserRepository userRepository, CalendarRepository calendarRepository, CalendarCache calendarCache,
+                       ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.calendarRepository = calendarRepository;
+        this.calendarCache = calendarCache;
+        this.eventPublisher = eventPublisher;
     }
 
 
@@ -27,8 +36,8 @@ public class UserService {
 
         User user = buildUser(email, name);
         user = userRepository.save(user);
-        Calendar calendar = buildDefaultCalendar(user);
-        calendarRepository.save(calendar);
+        Calendar calendar = calendarRepository.save(buildDefaultCalendar(user));
+        eventPublisher.publishEvent(new CalendarCreatedEvent(user.getId(), calendar.getId()));
         return user;
     }
 
@@ -46,8 +55,20 @@ public class UserService {
                 .build();
     }
 
+    /**
+     * Returns an uninitialized reference to the user's calendar, resolved through {@link CalendarCache}; enough for
+     * associations and id lookups without loading the calendar or its owner.
+     */
     @Transactional(readOnly = true)
     public Calendar getPersonalCalendar(Long userId) {
-        return calendarRepository.findByOwnerId(userId).orElseThrow();
+        return calendarRepository.getReferenceById(getPersonalCalendarId(userId));
+    }
+
+    public Long getPersonalCalendarId(Long userId) {
+        return calendarCache.findCalendarId(userId).orElseThrow();
+    }
+
+    public Optional<Long> findPersonalCalendarId(Long userId) {
+        return calendarCache.findCalendarId(userId);
     }
 }
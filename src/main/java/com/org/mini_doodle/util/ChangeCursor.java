@@ -0,0 +1,29 @@
+package com.org.mini_doodle.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque delta sync position handed to clients when a page ends inside a change set or a snapshot: the keyset
+ * {@code (changeSeq, slotId)} in the change log, or for a snapshot the sequence it ends at and the last slot id.
+ */
+public record ChangeCursor(boolean snapshot, long changeSeq, long slotId) {
+
+    public String encode() {
+        String raw = (snapshot ? "s" : "c") + ":" + changeSeq + ":" + slotId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static ChangeCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII).split(":");
+            boolean snapshot = parts[0].equals("s");
+            if (parts.length == 3 && (snapshot || parts[0].equals("c"))) {
+                return new ChangeCursor(snapshot, Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+            }
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, ex);
+        }
+        throw new IllegalArgumentException("Invalid cursor: " + token);
+    }
+}
@@ -0,0 +1,198 @@
+package com.org.mini_doodle.util;
+
+import com.org.mini_doodle.domain.TimeInterval;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Growable list of half-open {@code [start, end)} intervals packed as {@code start0, end0, start1, end1, ...}
+ * epoch microseconds. Sorting, merging and complementing work in place on the primitive array;
+ * {@link TimeInterval}s are only created by {@link #toTimeIntervals(ZoneOffset)} at the API edge.
+ */
+public final class EpochIntervals {
+
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private long[] packed;
+    private int size;
+
+    public EpochIntervals(int expectedIntervals) {
+        this.packed = new long[Math.max(2, expectedIntervals * 2)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long start(int i) {
+        return packed[2 * i];
+    }
+
+    public long end(int i) {
+        return packed[2 * i + 1];
+    }
+
+    public void add(long start, long end) {
+        if (2 * size + 2 > packed.length) {
+            packed = Arrays.copyOf(packed, packed.length * 2);
+        }
+        packed[2 * size] = start;
+        packed[2 * size + 1] = end;
+        size++;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Sorts by start. Input read from an ordered query is usually sorted already, which is detected in one pass.
+     */
+    public EpochIntervals sort() {
+        for (int i = 1; i < size; i++) {
+            if (start(i) < start(i - 1)) {
+                quickSort(0, size - 1);
+                break;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Coalesces overlapping or touching intervals in place. Requires {@link #sort()} first.
+     */
+    public EpochIntervals merge() {
+        if (size == 0) return this;
+        int last = 0;
+        for (int i = 1; i < size; i++) {
+            long s = packed[2 * i];
+            long e = packed[2 * i + 1];
+            if (s <= packed[2 * last + 1]) {
+                if (e > packed[2 * last + 1]) packed[2 * last + 1] = e;
+            } else {
+                last++;
+                packed[2 * last] = s;
+                packed[2 * last + 1] = e;
+            }
+        }
+        size = last + 1;
+        return this;
+    }
+
+    /**
+     * Gaps of {@code [from, to)} not covered by these intervals, written into {@code target}.
+     * Requires sorted input; overlapping input is tolerated.
+     */
+    public EpochIntervals complementInto(long from, long to, EpochIntervals target) {
+        target.clear();
+        long cursor = from;
+        for (int i = 0; i < size && cursor < to; i++) {
+            long s = packed[2 * i];
+            if (s > cursor) target.add(cursor, Math.min(s, to));
+            long e = packed[2 * i + 1];
+            if (e > cursor) cursor = e;
+        }
+        if (cursor < to) target.add(cursor, to);
+        return target;
+    }
+
+    /**
+     * Gaps of {@code [from, to)} at least {@code minLength} long that no set covers, found by a k-way merge
+     * over the sorted sets driven by a heap of set indexes keyed on each set's next start.
+     */
+    public static EpochIntervals commonGapsInto(List<EpochIntervals> sets, long from, long to, long minLength,
+                                                EpochIntervals target) {
+        target.clear();
+        int[] heap = new int[sets.size()];
+        int[] position = new int[sets.size()];
+        int heapSize = 0;
+        for (int k = 0; k < sets.size(); k++) {
+            if (sets.get(k).size > 0) heap[heapSize++] = k;
+        }
+        for (int i = heapSize / 2 - 1; i >= 0; i--) siftDown(heap, heapSize, i, sets, position);
+
+        long cursor = from;
+        while (heapSize > 0 && cursor < to) {
+            int k = heap[0];
+            EpochIntervals set = sets.get(k);
+            int p = position[k]++;
+            long s = set.start(p);
+            if (s > cursor && Math.min(s, to) - cursor >= minLength) target.add(cursor, Math.min(s, to));
+            if (set.end(p) > cursor) cursor = set.end(p);
+
+            if (position[k] == set.size) heap[0] = heap[--heapSize];
+            siftDown(heap, heapSize, 0, sets, position);
+        }
+        if (cursor < to && to - cursor >= minLength) target.add(cursor, to);
+        return target;
+    }
+
+    private static void siftDown(int[] heap, int heapSize, int i, List<EpochIntervals> sets, int[] position) {
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < heapSize && head(left, heap, sets, position) < head(smallest, heap, sets, position)) smallest = left;
+            if (right < heapSize && head(right, heap, sets, position) < head(smallest, heap, sets, position)) smallest = right;
+            if (smallest == i) return;
+            int tmp = heap[i];
+            heap[i] = heap[smallest];
+            heap[smallest] = tmp;
+            i = smallest;
+        }
+    }
+
+    private static long head(int heapIndex, int[] heap, List<EpochIntervals> sets, int[] position) {
+        int k = heap[heapIndex];
+        return sets.get(k).start(position[k]);
+    }
+
+    /**
+     * Read-only view, so the result can be shared by cached responses.
+     */
+    public List<TimeInterval> toTimeIntervals(ZoneOffset offset) {
+        List<TimeInterval> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(new TimeInterval(EpochTimes.fromMicros(start(i), offset), EpochTimes.fromMicros(end(i), offset)));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private void quickSort(int lo, int hi) {
+        while (hi - lo > INSERTION_SORT_THRESHOLD) {
+            long pivot = start((lo + hi) >>> 1);
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (start(i) < pivot) i++;
+                while (start(j) > pivot) j--;
+                if (i <= j) swap(i++, j--);
+            }
+            if (j - lo < hi - i) {
+                quickSort(lo, j);
+                lo = i;
+            } else {
+                quickSort(i, hi);
+                hi = j;
+            }
+        }
+        for (int i = lo + 1; i <= hi; i++) {
+            for (int j = i; j > lo && start(j) < start(j - 1); j--) {
+                swap(j, j - 1);
+            }
+        }
+    }
+
+    private void swap(int a, int b) {
+        long s = packed[2 * a];
+        long e = packed[2 * a + 1];
+        packed[2 * a] = packed[2 * b];
+        packed[2 * a + 1] = packed[2 * b + 1];
+        packed[2 * b] = s;
+        packed[2 * b + 1] = e;
+    }
+}
@@ -0,0 +1,24 @@
+package com.org.mini_doodle.util;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Converts between {@link OffsetDateTime} and epoch microseconds, the resolution Postgres stores
+ * {@code timestamptz} with, so persisted boundaries survive the round trip unchanged.
+ */
+public class EpochTimes {
+
+    public EpochTimes() {
+    }
+
+    public static long toMicros(OffsetDateTime time) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, time.toInstant());
+    }
+
+    public static OffsetDateTime fromMicros(long micros, ZoneOffset offset) {
+        return Instant.EPOCH.plus(micros, ChronoUnit.MICROS).atOffset(offset);
+    }
+}
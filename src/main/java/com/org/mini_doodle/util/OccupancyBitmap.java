@@ -0,0 +1,63 @@
+package com.org.mini_doodle.util;
+
+/**
+ * One bit per minute of a range, packed into a {@code long[]}. Busy intervals are painted with whole-word
+ * fills and buckets are read back with {@link Long#bitCount(long)}, so the cost is driven by the number of
+ * minutes in the range rather than by the number of buckets or slots.
+ */
+public final class OccupancyBitmap {
+
+    public static final long MICROS_PER_MINUTE = 60_000_000L;
+
+    private final long originMicros;
+    private final int minutes;
+    private final long[] words;
+
+    public OccupancyBitmap(long fromMicros, long toMicros) {
+        this.originMicros = fromMicros;
+        this.minutes = (int) Math.ceilDiv(toMicros - fromMicros, MICROS_PER_MINUTE);
+        this.words = new long[(minutes + 63) >>> 6];
+    }
+
+    public int minutes() {
+        return minutes;
+    }
+
+    /**
+     * Marks every minute touched by {@code [startMicros, endMicros)} as busy, clipped to the range.
+     */
+    public void markBusy(long startMicros, long endMicros) {
+        int from = (int) Math.max(0, Math.floorDiv(startMicros - originMicros, MICROS_PER_MINUTE));
+        int to = (int) Math.min(minutes, Math.max(0, Math.ceilDiv(endMicros - originMicros, MICROS_PER_MINUTE)));
+        if (from >= to) return;
+
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        long firstMask = -1L << (from & 63);
+        long lastMask = -1L >>> (63 - ((to - 1) & 63));
+        if (firstWord == lastWord) {
+            words[firstWord] |= firstMask & lastMask;
+            return;
+        }
+        words[firstWord] |= firstMask;
+        for (int w = firstWord + 1; w < lastWord; w++) words[w] = -1L;
+        words[lastWord] |= lastMask;
+    }
+
+    /**
+     * Number of busy minutes in {@code [fromMinute, toMinute)}.
+     */
+    public int busyMinutes(int fromMinute, int toMinute) {
+        if (fromMinute >= toMinute) return 0;
+        int firstWord = fromMinute >>> 6;
+        int lastWord = (toMinute - 1) >>> 6;
+        long firstMask = -1L << (fromMinute & 63);
+        long lastMask = -1L >>> (63 - ((toMinute - 1) & 63));
+        if (firstWord == lastWord) {
+            return Long.bitCount(words[firstWord] & firstMask & lastMask);
+        }
+        int count = Long.bitCount(words[firstWord] & firstMask);
+        for (int w = firstWord + 1; w < lastWord; w++) count += Long.bitCount(words[w]);
+        return count + Long.bitCount(words[lastWord] & lastMask);
+    }
+}
@@ -1,6 +1,5 @@
 package com.org.mini_doodle.util;
 
-import com.org.mini_doodle.domain.Slot;
 import com.org.mini_doodle.exception.OwnershipViolationException;
 
 public class Ownership {
@@ -8,8 +7,8 @@ public class Ownership {
     public Ownership() {
     }
 
-    public static void ensureSlotBelongs(Long userId, Slot s) {
-        if (!s.getCalendar().getOwner().getId().equals(userId))
+    public static void ensureSameCalendar(Long userCalendarId, Long slotCalendarId) {
+        if (!slotCalendarId.equals(userCalendarId))
             throw new OwnershipViolationException("Slot does not belong to the user's calendar");
     }
 }
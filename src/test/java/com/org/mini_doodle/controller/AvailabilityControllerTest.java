@@ -1,7 +1,11 @@
 package com.org.mini_doodle.controller;
 
+import com.org.mini_doodle.domain.BucketState;
 import com.org.mini_doodle.domain.TimeInterval;
+import com.org.mini_doodle.dto.response.BucketAvailability;
 import com.org.mini_doodle.dto.response.FreeBusyResponse;
+import com.org.mini_doodle.exception.NotFoundException;
+import com.org.mini_doodle.observability.SchedulingMetrics;
 import com.org.mini_doodle.service.AvailabilityService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -30,6 +34,9 @@ class AvailabilityControllerTest {
     @MockitoBean
     private AvailabilityService availabilityService;
 
+    @MockitoBean
+    private SchedulingMetrics schedulingMetrics;
+
     private OffsetDateTime from;
     private OffsetDateTime to;
 
@@ -60,9 +67,9 @@ class AvailabilityControllerTest {
 
     @Test
     void shouldReturnBucketedAvailabilityWhenGranularityIsProvided() throws Exception {
-        List<TimeInterval> mockIntervals = List.of(
-                new TimeInterval(from, from.plusMinutes(30)),
-                new TimeInterval(from.plusMinutes(30), from.plusMinutes(60))
+        List<BucketAvailability> mockIntervals = List.of(
+                new BucketAvailability(from, from.plusMinutes(30), BucketState.FREE, 0.0),
+                new BucketAvailability(from.plusMinutes(30), from.plusMinutes(60), BucketState.PARTIAL, 0.5)
         );
 
         Mockito.when(availabilityService.bucketedForUser(eq(1L), any(), any(), eq(Duration.ofMinutes(30))))
@@ -75,7 +82,9 @@ class AvailabilityControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].start").value("2025-08-15T10:00:00Z"))
-                .andExpect(jsonPath("$[1].end").value("2025-08-15T11:00:00Z"));
+                .andExpect(jsonPath("$[1].end").value("2025-08-15T11:00:00Z"))
+                .andExpect(jsonPath("$[1].state").value("PARTIAL"))
+                .andExpect(jsonPath("$[1].busyFraction").value(0.5));
     }
 
     @Test
@@ -91,4 +100,30 @@ class AvailabilityControllerTest {
                         "Invalid granularity format. Expected ISO-8601 duration (e.g., PT30M, PT1H): 30"
                 ));
     }
+
+    @Test
+    void export_ShouldReturnNotFoundBeforeStreaming_WhenUserHasNoCalendar() throws Exception {
+        Mockito.when(availabilityService.calendarIdForExport(1L, from, to))
+                .thenThrow(new NotFoundException("Calendar not found for user: 1"));
+
+        mockMvc.perform(get("/api/users/1/availability/free-busy/export")
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON));
+        Mockito.verify(availabilityService, Mockito.never()).streamFreeBusy(any(), any(), any(), any());
+    }
+
+    @Test
+    void export_ShouldReturnBadRequestBeforeStreaming_WhenRangeIsReversed() throws Exception {
+        Mockito.when(availabilityService.calendarIdForExport(1L, to, from))
+                .thenThrow(new IllegalArgumentException("StartTime must be before endTime"));
+
+        mockMvc.perform(get("/api/users/1/availability/free-busy/export")
+                        .param("from", to.toString())
+                        .param("to", from.toString()))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,110 @@
+package com.org.mini_doodle.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DatabaseConcurrencyFilterTest {
+
+    private DatabaseConcurrencyFilter filter;
+
+    @BeforeEach
+    void setup() {
+        filter = new DatabaseConcurrencyFilter(1, Duration.ofMillis(50), new ObjectMapper());
+    }
+
+    @Test
+    void doFilter_ShouldReturn503_WhenNoPermitFreesUpInTime() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = Thread.ofVirtual().start(() -> {
+            try {
+                filter.doFilter(apiRequest(), new MockHttpServletResponse(), (req, res) -> {
+                    entered.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(apiRequest(), rejected, new MockFilterChain());
+
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(rejected.getContentAsString()).contains("Too many concurrent requests");
+
+        release.countDown();
+        holder.join();
+        MockHttpServletResponse admitted = new MockHttpServletResponse();
+        filter.doFilter(apiRequest(), admitted, new MockFilterChain());
+        assertThat(admitted.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void doFilter_ShouldHoldPermitUntilStreamedExportCompletes() throws Exception {
+        MockHttpServletRequest export = apiRequest();
+        export.setAsyncSupported(true);
+        filter.doFilter(export, new MockHttpServletResponse(), (req, res) -> {
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(export));
+            try {
+                req.startAsync();
+                DatabaseConcurrencyFilter.holdPermitUntilComplete();
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+        });
+
+        MockHttpServletResponse whileStreaming = new MockHttpServletResponse();
+        filter.doFilter(apiRequest(), whileStreaming, new MockFilterChain());
+        assertThat(whileStreaming.getStatus()).isEqualTo(503);
+
+        export.getAsyncContext().complete();
+        MockHttpServletResponse afterStream = new MockHttpServletResponse();
+        filter.doFilter(apiRequest(), afterStream, new MockFilterChain());
+        assertThat(afterStream.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void doFilter_ShouldReleasePermit_WhenAsyncRequestDoesNotHoldIt() throws Exception {
+        MockHttpServletRequest events = apiRequest();
+        events.setAsyncSupported(true);
+        filter.doFilter(events, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        MockHttpServletResponse admitted = new MockHttpServletResponse();
+        filter.doFilter(apiRequest(), admitted, new MockFilterChain());
+        assertThat(admitted.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void doFilter_ShouldNotLimitNonApiPaths() throws Exception {
+        DatabaseConcurrencyFilter exhausted = new DatabaseConcurrencyFilter(0, Duration.ofMillis(10), new ObjectMapper());
+        MockHttpServletRequest docs = new MockHttpServletRequest("GET", "/swagger-ui/index.html");
+        MockFilterChain chain = new MockFilterChain();
+
+        exhausted.doFilter(docs, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isSameAs(docs);
+    }
+
+    private static MockHttpServletRequest apiRequest() {
+        return new MockHttpServletRequest("GET", "/api/users/1/availability/free-busy");
+    }
+}
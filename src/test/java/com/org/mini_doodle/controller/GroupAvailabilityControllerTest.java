@@ -0,0 +1,72 @@
+package com.org.mini_doodle.controller;
+
+import com.org.mini_doodle.domain.TimeInterval;
+import com.org.mini_doodle.observability.SchedulingMetrics;
+import com.org.mini_doodle.service.AvailabilityService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(GroupAvailabilityController.class)
+class GroupAvailabilityControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private AvailabilityService availabilityService;
+
+    @MockitoBean
+    private SchedulingMetrics schedulingMetrics;
+
+    private OffsetDateTime from;
+    private OffsetDateTime to;
+
+    @BeforeEach
+    void setUp() {
+        from = OffsetDateTime.parse("2025-08-15T10:00:00Z");
+        to = OffsetDateTime.parse("2025-08-15T12:00:00Z");
+    }
+
+    @Test
+    void shouldReturnCommonFreeWindows() throws Exception {
+        Mockito.when(availabilityService.commonFreeForUsers(eq(List.of(1L, 2L, 3L)), any(), any(), eq(Duration.ofMinutes(30))))
+                .thenReturn(List.of(new TimeInterval(from.plusHours(1), to)));
+
+        mockMvc.perform(get("/api/availability/common-free")
+                        .param("userIds", "1,2,3")
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .param("minDuration", "PT30M")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].start").value("2025-08-15T11:00:00Z"))
+                .andExpect(jsonPath("$[0].end").value("2025-08-15T12:00:00Z"));
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenMinDurationIsInvalid() throws Exception {
+        mockMvc.perform(get("/api/availability/common-free")
+                        .param("userIds", "1,2")
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .param("minDuration", "30")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.title").value("Bad Request"));
+    }
+}
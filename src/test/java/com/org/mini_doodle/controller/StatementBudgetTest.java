@@ -0,0 +1,237 @@
+package com.org.mini_doodle.controller;
+
+import com.org.mini_doodle.domain.Slot;
+import com.org.mini_doodle.domain.SlotStatus;
+import com.org.mini_doodle.domain.User;
+import com.org.mini_doodle.dto.request.RecurringSlotRequest;
+import com.org.mini_doodle.observability.SchedulingMetrics;
+import com.org.mini_doodle.service.SlotService;
+import com.org.mini_doodle.service.UserService;
+import com.org.mini_doodle.support.StatementCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Fails when an endpoint starts issuing more SQL statements than it needs, which is how N+1 regressions from eager
+ * associations or lazy collections show up. Runs on in-memory H2; budgets count statements, not rows.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statement-budget;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "mini-doodle.diagnostics.sql-accounting.rows=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"})
+@AutoConfigureMockMvc
+class StatementBudgetTest {
+
+    private static final LocalDate MONDAY = LocalDate.parse("2030-01-07");
+    private static final String FROM = "2030-01-07T00:00:00Z";
+    private static final String TO = "2030-02-04T00:00:00Z";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private SlotService slotService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private StatementCounter statements;
+    private User owner;
+    private List<Slot> slots;
+
+    @BeforeEach
+    void setup() {
+        statements = new StatementCounter(entityManagerFactory);
+        owner = newUser();
+        // 4 weeks of weekdays, 16 half-hour slots a day: 320 slots
+        slots = slotService.createRecurringSlotsForUser(owner.getId(), new RecurringSlotRequest(MONDAY, MONDAY.plusDays(27),
+                EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY), LocalTime.of(9, 0), LocalTime.of(17, 0), ZoneOffset.UTC, 30));
+    }
+
+    @Test
+    void scheduleMeeting_With50Participants_ShouldStayWithinBudget() throws Throwable {
+        List<Long> participants = new ArrayList<>();
+        for (int i = 0; i < 50; i++) participants.add(newUser().getId());
+        String body = """
+                {"slotId": %d, "title": "All hands", "participantUserIds": [%s]}"""
+                .formatted(slots.getFirst().getId(), participants.stream().map(String::valueOf).collect(Collectors.joining(",")));
+
+        // slot claim, change sequence advance and change log update, participant existence check, meeting and
+        // participant id blocks, meeting insert, batched participant insert
+        statements.assertAtMost(9, "POST /meetings with 50 participants", () -> mockMvc.perform(
+                        post("/api/users/{userId}/meetings", owner.getId())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.participantUserIds.length()").value(50)));
+    }
+
+    @Test
+    void querySlots_PageOf100_ShouldUseTwoStatements() throws Throwable {
+        statements.assertAtMost(2, "GET /slots page of 100", () -> mockMvc.perform(
+                        get("/api/users/{userId}/slots", owner.getId())
+                                .param("from", FROM).param("to", TO).param("size", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(100)));
+    }
+
+    @Test
+    void querySlots_RuntimeAccountingShouldAgreeWithStatistics() throws Exception {
+        mockMvc.perform(get("/api/users/{userId}/slots", owner.getId())
+                        .param("from", FROM).param("to", TO).param("size", "100"))
+                .andExpect(status().isOk());
+
+        // the page query reads 100 rows and the count query one
+        DistributionSummary statementsPerRequest = meterRegistry.get(SchedulingMetrics.REQUEST_SQL_STATEMENTS)
+                .tag("uri", "/api/users/{userId}/slots").summary();
+        assertThat(statementsPerRequest.max()).isEqualTo(2);
+        assertThat(meterRegistry.get(SchedulingMetrics.REQUEST_SQL_ROWS)
+                .tag("uri", "/api/users/{userId}/slots").summary().max()).isEqualTo(101);
+    }
+
+    @Test
+    void scrollSlots_PageOf100_ShouldUseOneStatement() throws Throwable {
+        statements.assertAtMost(1, "GET /slots/scroll page of 100", () -> mockMvc.perform(
+                        get("/api/users/{userId}/slots/scroll", owner.getId())
+                                .param("from", FROM).param("to", TO).param("size", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(100)));
+    }
+
+    @Test
+    void exportSlots_ShouldUseOneStatement() throws Throwable {
+        // the body is written by the async dispatch, so the cursor query runs there
+        statements.assertAtMost(1, "GET /slots/export", () -> {
+            MvcResult started = mockMvc.perform(get("/api/users/{userId}/slots/export", owner.getId())
+                            .param("from", FROM).param("to", TO))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            return mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+        });
+    }
+
+    @Test
+    void freeBusy_ShouldUseOneStatement() throws Throwable {
+        statements.assertAtMost(1, "GET /availability/free-busy", () -> mockMvc.perform(
+                        get("/api/users/{userId}/availability/free-busy", owner.getId())
+                                .param("from", FROM).param("to", TO))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void commonFree_ForTenUsers_ShouldUseOneStatement() throws Throwable {
+        List<String> userIds = new ArrayList<>(List.of(owner.getId().toString()));
+        for (int i = 0; i < 9; i++) userIds.add(newUser().getId().toString());
+
+        statements.assertAtMost(1, "GET /availability/common-free for 10 users", () -> mockMvc.perform(
+                        get("/api/availability/common-free")
+                                .param("userIds", userIds.toArray(String[]::new))
+                                .param("from", FROM).param("to", TO))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void createSlot_ShouldStayWithinBudget() throws Throwable {
+        // insert, change sequence advance and change log insert at commit; the overlap index and slot id block are
+        // warm from setup
+        statements.assertAtMost(3, "POST /slots", () -> mockMvc.perform(
+                        post("/api/users/{userId}/slots", owner.getId())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("""
+                                        {"startTime": "2030-03-04T09:00:00Z", "durationMinutes": 30}"""))
+                .andExpect(status().isCreated()));
+    }
+
+    @Test
+    void markStatus_ShouldStayWithinBudget() throws Throwable {
+        // conditional update, change sequence advance and change log update, view read for the response
+        statements.assertAtMost(4, "PATCH /slots/{slotId}/status", () -> mockMvc.perform(
+                        patch("/api/users/{userId}/slots/{slotId}/status", owner.getId(), slots.getFirst().getId())
+                                .param("status", "BUSY"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("BUSY")));
+    }
+
+    @Test
+    void modifyTimes_ShouldStayWithinBudget() throws Throwable {
+        // conditional update, change sequence advance and change log update, view read for the response; the overlap
+        // check is served from the interval index
+        statements.assertAtMost(4, "PATCH /slots/{slotId}", () -> mockMvc.perform(
+                        patch("/api/users/{userId}/slots/{slotId}", owner.getId(), slots.getFirst().getId())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("""
+                                        {"startTime": "2030-03-04T09:00:00Z", "endTime": "2030-03-04T09:30:00Z"}"""))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void deleteSlot_ShouldStayWithinBudget() throws Throwable {
+        // conditional delete of an unbooked slot, change sequence advance, change log update
+        statements.assertAtMost(3, "DELETE /slots/{slotId}", () -> mockMvc.perform(
+                        delete("/api/users/{userId}/slots/{slotId}", owner.getId(), slots.getFirst().getId()))
+                .andExpect(status().isNoContent()));
+    }
+
+    @Test
+    void slotChanges_ShouldReadOnlyWhatChanged() throws Throwable {
+        // the change sequence is not on the slot entities, so it is read back from the initial sync
+        long since = slotService.changesForUser(owner.getId(), null, null, 1000).nextSince();
+        slotService.markStatus(owner.getId(), slots.get(1).getId(), SlotStatus.BUSY);
+        slotService.deleteSlot(owner.getId(), slots.get(2).getId());
+
+        // current sequence, change log read; none of the other 318 slots is read
+        statements.assertAtMost(3, "GET /slots/changes", () -> mockMvc.perform(
+                        get("/api/users/{userId}/slots/changes", owner.getId()).param("since", String.valueOf(since)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed.length()").value(1))
+                .andExpect(jsonPath("$.changed[0].status").value("BUSY"))
+                .andExpect(jsonPath("$.deleted[0]").value(slots.get(2).getId()))
+                .andExpect(jsonPath("$.nextSince").value(since + 2))
+                .andExpect(jsonPath("$.hasMore").value(false)));
+    }
+
+    private User newUser() {
+        String name = UUID.randomUUID().toString();
+        return userService.createUser(name + "@example.com", name);
+    }
+}
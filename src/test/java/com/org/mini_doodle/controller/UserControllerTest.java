@@ -1,6 +1,7 @@
 package com.org.mini_doodle.controller;
 
 import com.org.mini_doodle.domain.User;
+import com.org.mini_doodle.observability.SchedulingMetrics;
 import com.org.mini_doodle.repository.UserRepository;
 import com.org.mini_doodle.service.UserService;
 import org.junit.jupiter.api.Test;
@@ -30,6 +31,9 @@ class UserControllerTest {
     @MockitoBean
     private UserRepository userRepository;
 
+    @MockitoBean
+    private SchedulingMetrics schedulingMetrics;
+
     @Test
     void createUser_ShouldReturn201_WhenValidRequest() throws Exception {
         User mockUser = new User();
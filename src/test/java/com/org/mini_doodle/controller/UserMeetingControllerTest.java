@@ -6,7 +6,10 @@ import com.org.mini_doodle.domain.Slot;
 import com.org.mini_doodle.domain.User;
 import com.org.mini_doodle.dto.request.ScheduleMeetingRequest;
 import com.org.mini_doodle.exception.GlobalExceptionHandler;
-import com.org.mini_doodle.service.MeetingService;
+import com.org.mini_doodle.exception.OverlapConflictException;
+import com.org.mini_doodle.observability.SchedulingMetrics;
+import com.org.mini_doodle.service.BookingCoordinator;
+import com.org.mini_doodle.service.IdempotencyStore;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -19,6 +22,8 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -26,14 +31,17 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @WebMvcTest(UserMeetingController.class)
 @AutoConfigureMockMvc(addFilters = false)
-@Import(GlobalExceptionHandler.class)
+@Import({GlobalExceptionHandler.class, IdempotencyStore.class})
 class UserMeetingControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
 
     @MockitoBean
-    private MeetingService meetingService;
+    private BookingCoordinator bookingCoordinator;
+
+    @MockitoBean
+    private SchedulingMetrics schedulingMetrics;
 
     @Test
     void scheduleMeeting_ShouldReturn201_WhenValidRequest() throws Exception {
@@ -50,7 +58,7 @@ class UserMeetingControllerTest {
                         Participant.builder().id(100L).user(participant).build()
                 ))
                 .build();
-        when(meetingService.schedule(any(Long.class), any(ScheduleMeetingRequest.class)))
+        when(bookingCoordinator.schedule(any(Long.class), any(ScheduleMeetingRequest.class)))
                 .thenReturn(mockMeeting);
 
         String requestJson = """
@@ -85,4 +93,60 @@ class UserMeetingControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.fieldErrors['title']").exists());
     }
-}
\ No newline at end of file
+
+    @Test
+    void scheduleMeeting_ShouldReturn409AndCountConflict_WhenSlotTaken() throws Exception {
+        when(bookingCoordinator.schedule(any(Long.class), any(ScheduleMeetingRequest.class)))
+                .thenThrow(new OverlapConflictException("Slot not available"));
+
+        mockMvc.perform(post("/api/users/5/meetings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"slotId": 10, "title": "Project Sync", "participantUserIds": [2]}
+                                """))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.detail").value("Slot not available"));
+        verify(schedulingMetrics).overlapConflict();
+    }
+
+    @Test
+    void scheduleMeeting_ShouldBookOnce_WhenIdempotencyKeyRepeated() throws Exception {
+        when(bookingCoordinator.schedule(any(Long.class), any(ScheduleMeetingRequest.class)))
+                .thenReturn(Meeting.builder().id(1L).title("Project Sync").slot(Slot.builder().id(10L).build()).build());
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(post("/api/users/5/meetings")
+                            .header(IdempotencyStore.HEADER, "booking-retry")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("""
+                                    {"slotId": 10, "title": "Project Sync", "participantUserIds": [2]}
+                                    """))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.id").value(1));
+        }
+        verify(bookingCoordinator, times(1)).schedule(any(Long.class), any(ScheduleMeetingRequest.class));
+    }
+
+    @Test
+    void scheduleMeeting_ShouldReturn422_WhenIdempotencyKeyReusedForDifferentRequest() throws Exception {
+        when(bookingCoordinator.schedule(any(Long.class), any(ScheduleMeetingRequest.class)))
+                .thenReturn(Meeting.builder().id(1L).title("Project Sync").slot(Slot.builder().id(10L).build()).build());
+        mockMvc.perform(post("/api/users/5/meetings")
+                        .header(IdempotencyStore.HEADER, "reused-key")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"slotId": 10, "title": "Project Sync", "participantUserIds": [2]}
+                                """))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/api/users/5/meetings")
+                        .header(IdempotencyStore.HEADER, "reused-key")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"slotId": 11, "title": "Project Sync", "participantUserIds": [2]}
+                                """))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.title").value("Idempotency Key Reused"));
+        verify(bookingCoordinator, times(1)).schedule(any(Long.class), any(ScheduleMeetingRequest.class));
+    }
+}
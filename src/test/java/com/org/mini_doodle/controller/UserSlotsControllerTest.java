@@ -7,7 +7,15 @@ import com.org.mini_doodle.domain.Slot;
 import com.org.mini_doodle.domain.SlotStatus;
 import com.org.mini_doodle.dto.request.CreateSlotRequest;
 import com.org.mini_doodle.dto.request.ModifySlotRequest;
+import com.org.mini_doodle.dto.request.RecurringSlotRequest;
+import com.org.mini_doodle.dto.response.SlotChangesResponse;
 import com.org.mini_doodle.dto.response.SlotResponse;
+import com.org.mini_doodle.dto.response.SlotScrollResponse;
+import com.org.mini_doodle.exception.NotFoundException;
+import com.org.mini_doodle.observability.SchedulingMetrics;
+import com.org.mini_doodle.repository.projection.SlotView;
+import com.org.mini_doodle.service.IdempotencyStore;
+import com.org.mini_doodle.service.SlotChangeFeed;
 import com.org.mini_doodle.service.SlotService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,6 +24,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -24,9 +33,12 @@ import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
@@ -37,6 +49,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @WebMvcTest(UserSlotsController.class)
 @ExtendWith(MockitoExtension.class)
+@Import(IdempotencyStore.class)
 class UserSlotsControllerTest {
 
     @Autowired
@@ -45,9 +58,16 @@ class UserSlotsControllerTest {
     @MockitoBean
     private SlotService slotService;
 
+    @MockitoBean
+    private SchedulingMetrics schedulingMetrics;
+
+    @MockitoBean
+    private SlotChangeFeed slotChangeFeed;
+
     private ObjectMapper objectMapper;
 
     private Slot mockSlot;
+    private SlotView mockSlotView;
     private final Long userId = 1L;
     private final Long slotId = 100L;
 
@@ -62,7 +82,7 @@ class UserSlotsControllerTest {
         mockSlot.setEndTime(OffsetDateTime.now().plusHours(1));
         mockSlot.setStatus(SlotStatus.FREE);
 
-        SlotResponse mockSlotResponse = SlotResponse.from(mockSlot);
+        mockSlotView = new SlotView(slotId, SlotStatus.FREE, mockSlot.getStartTime(), mockSlot.getEndTime());
     }
 
     @Test
@@ -85,6 +105,23 @@ class UserSlotsControllerTest {
         verify(slotService).createSlotForUser(eq(userId), any(CreateSlotRequest.class));
     }
 
+    @Test
+    void create_ShouldReplayResponse_WhenIdempotencyKeyRepeated() throws Exception {
+        CreateSlotRequest request = new CreateSlotRequest(OffsetDateTime.now().plusDays(1), 60);
+        when(slotService.createSlotForUser(eq(userId), any(CreateSlotRequest.class)))
+                .thenReturn(mockSlot);
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(post("/api/users/{userId}/slots", userId)
+                            .header(IdempotencyStore.HEADER, "create-retry")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.id").value(slotId));
+        }
+        verify(slotService, times(1)).createSlotForUser(eq(userId), any(CreateSlotRequest.class));
+    }
+
     @Test
     void create_ShouldReturnBadRequest_WhenInvalidRequest() throws Exception {
         // Arrange
@@ -99,14 +136,46 @@ class UserSlotsControllerTest {
         verify(slotService, never()).createSlotForUser(any(), any());
     }
 
+    @Test
+    void createRecurring_ShouldReturnCreatedSlots_WhenValidRequest() throws Exception {
+        String body = """
+                {"startDate":"2025-08-18","endDate":"2025-11-18","daysOfWeek":["MONDAY","TUESDAY"],
+                 "dayStart":"09:00","dayEnd":"17:00","timeZone":"Europe/Berlin","durationMinutes":30}
+                """;
+
+        when(slotService.createRecurringSlotsForUser(eq(userId), any(RecurringSlotRequest.class)))
+                .thenReturn(List.of(mockSlot));
+
+        mockMvc.perform(post("/api/users/{userId}/slots/recurring", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$[0].id").value(slotId));
+        verify(slotService).createRecurringSlotsForUser(eq(userId), any(RecurringSlotRequest.class));
+    }
+
+    @Test
+    void createRecurring_ShouldReturnBadRequest_WhenDaysMissing() throws Exception {
+        String body = """
+                {"startDate":"2025-08-18","endDate":"2025-11-18","daysOfWeek":[],
+                 "dayStart":"09:00","dayEnd":"17:00","timeZone":"UTC","durationMinutes":30}
+                """;
+
+        mockMvc.perform(post("/api/users/{userId}/slots/recurring", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isBadRequest());
+        verify(slotService, never()).createRecurringSlotsForUser(any(), any());
+    }
+
     @Test
     void query_ShouldReturnPagedSlots_WhenValidRequest() throws Exception {
         // Arrange
         OffsetDateTime from = OffsetDateTime.now().minusDays(7);
         OffsetDateTime to = OffsetDateTime.now().plusDays(7);
 
-        List<Slot> slots = List.of(mockSlot);
-        Page<Slot> slotsPage = new PageImpl<>(slots, PageRequest.of(0, 20), 1);
+        List<SlotView> slots = List.of(mockSlotView);
+        Page<SlotView> slotsPage = new PageImpl<>(slots, PageRequest.of(0, 20), 1);
 
         when(slotService.querySlotsForUser(eq(userId), eq(from), eq(to), eq(SlotStatus.FREE), any(Pageable.class)))
                 .thenReturn(slotsPage);
@@ -141,8 +210,8 @@ class UserSlotsControllerTest {
         OffsetDateTime from = OffsetDateTime.now().minusDays(7);
         OffsetDateTime to = OffsetDateTime.now().plusDays(7);
 
-        List<Slot> slots = List.of(mockSlot);
-        Page<Slot> slotsPage = new PageImpl<>(slots, PageRequest.of(0, 20), 1);
+        List<SlotView> slots = List.of(mockSlotView);
+        Page<SlotView> slotsPage = new PageImpl<>(slots, PageRequest.of(0, 20), 1);
 
         when(slotService.querySlotsForUser(eq(userId), eq(from), eq(to), eq(null), any(Pageable.class)))
                 .thenReturn(slotsPage);
@@ -168,8 +237,8 @@ class UserSlotsControllerTest {
         OffsetDateTime from = OffsetDateTime.now().minusDays(7);
         OffsetDateTime to = OffsetDateTime.now().plusDays(7);
 
-        List<Slot> slots = List.of(mockSlot);
-        Page<Slot> slotsPage = new PageImpl<>(slots, PageRequest.of(0, 10), 1);
+        List<SlotView> slots = List.of(mockSlotView);
+        Page<SlotView> slotsPage = new PageImpl<>(slots, PageRequest.of(0, 10), 1);
 
         when(slotService.querySlotsForUser(any(), any(), any(), any(), any(Pageable.class)))
                 .thenReturn(slotsPage);
@@ -190,6 +259,122 @@ class UserSlotsControllerTest {
     }
 
 
+    @Test
+    void scroll_ShouldReturnItemsAndNextCursor() throws Exception {
+        OffsetDateTime from = OffsetDateTime.now().minusDays(7);
+        OffsetDateTime to = OffsetDateTime.now().plusDays(7);
+
+        when(slotService.scrollSlotsForUser(eq(userId), eq(from), eq(to), eq(null), eq("abc"), eq(50)))
+                .thenReturn(new SlotScrollResponse(List.of(SlotResponse.from(mockSlotView)), "def"));
+
+        mockMvc.perform(get("/api/users/{userId}/slots/scroll", userId)
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .param("cursor", "abc")
+                        .param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(slotId))
+                .andExpect(jsonPath("$.nextCursor").value("def"));
+    }
+
+    @Test
+    void changes_ShouldReturnChangedAndDeletedSlotsSinceSequence() throws Exception {
+        when(slotService.changesForUser(userId, 12L, null, 500))
+                .thenReturn(new SlotChangesResponse(List.of(SlotResponse.from(mockSlotView)), List.of(101L), 15L, null, false));
+
+        mockMvc.perform(get("/api/users/{userId}/slots/changes", userId)
+                        .param("since", "12"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed[0].id").value(slotId))
+                .andExpect(jsonPath("$.deleted[0]").value(101))
+                .andExpect(jsonPath("$.nextSince").value(15))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    void changes_ShouldContinueFromCursor() throws Exception {
+        when(slotService.changesForUser(userId, null, "abc", 500))
+                .thenReturn(new SlotChangesResponse(List.of(SlotResponse.from(mockSlotView)), List.of(), null, "def", true));
+
+        mockMvc.perform(get("/api/users/{userId}/slots/changes", userId)
+                        .param("cursor", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed[0].id").value(slotId))
+                .andExpect(jsonPath("$.nextCursor").value("def"))
+                .andExpect(jsonPath("$.hasMore").value(true));
+    }
+
+    @Test
+    void export_ShouldStreamSlotsAsNdjson() throws Exception {
+        OffsetDateTime from = OffsetDateTime.parse("2025-08-18T00:00:00Z");
+        OffsetDateTime to = OffsetDateTime.parse("2026-08-18T00:00:00Z");
+        SlotView second = new SlotView(101L, SlotStatus.BUSY, from.plusHours(1), from.plusHours(2));
+
+        doAnswer(inv -> {
+            Consumer<SlotView> sink = inv.getArgument(3);
+            sink.accept(new SlotView(100L, SlotStatus.FREE, from, from.plusHours(1)));
+            sink.accept(second);
+            return null;
+        }).when(slotService).exportSlots(eq(10L), eq(from), eq(to), any());
+        when(slotService.calendarIdForExport(userId, from, to)).thenReturn(10L);
+
+        MvcResult result = mockMvc.perform(get("/api/users/{userId}/slots/export", userId)
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(101, objectMapper.readTree(lines[1]).get("id").asInt());
+        assertEquals("BUSY", objectMapper.readTree(lines[1]).get("status").asText());
+    }
+
+    @Test
+    void export_ShouldReturnNotFoundBeforeStreaming_WhenUserHasNoCalendar() throws Exception {
+        OffsetDateTime from = OffsetDateTime.parse("2025-08-18T00:00:00Z");
+        OffsetDateTime to = OffsetDateTime.parse("2026-08-18T00:00:00Z");
+        when(slotService.calendarIdForExport(userId, from, to))
+                .thenThrow(new NotFoundException("Calendar not found for user: " + userId));
+
+        mockMvc.perform(get("/api/users/{userId}/slots/export", userId)
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON));
+        verify(slotService, never()).exportSlots(any(), any(), any(), any());
+    }
+
+    @Test
+    void export_ShouldReturnBadRequestBeforeStreaming_WhenRangeIsReversed() throws Exception {
+        OffsetDateTime from = OffsetDateTime.parse("2025-08-18T00:00:00Z");
+        OffsetDateTime to = OffsetDateTime.parse("2026-08-18T00:00:00Z");
+        when(slotService.calendarIdForExport(userId, to, from))
+                .thenThrow(new IllegalArgumentException("StartTime must be before endTime"));
+
+        mockMvc.perform(get("/api/users/{userId}/slots/export", userId)
+                        .param("from", to.toString())
+                        .param("to", from.toString()))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void events_ShouldOpenEventStream() throws Exception {
+        when(slotChangeFeed.subscribe(userId)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/users/{userId}/slots/events", userId)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+        verify(slotChangeFeed).subscribe(userId);
+    }
+
     @Test
     void modify_ShouldReturnBadRequest_WhenInvalidRequest() throws Exception {
         // Arrange
@@ -210,7 +395,7 @@ class UserSlotsControllerTest {
         String status = "BUSY";
 
         when(slotService.markStatus(userId, slotId, SlotStatus.BUSY))
-                .thenReturn(mockSlot);
+                .thenReturn(mockSlotView);
 
         // Act & Assert
         mockMvc.perform(patch("/api/users/{userId}/slots/{slotId}/status", userId, slotId)
@@ -0,0 +1,72 @@
+package com.org.mini_doodle.observability;
+
+import com.org.mini_doodle.exception.NotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestSqlAccountingInterceptorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RequestSqlAccountingInterceptor interceptor =
+            new RequestSqlAccountingInterceptor(new SchedulingMetrics(registry), Duration.ofMillis(500));
+
+    @Test
+    void afterCompletion_ShouldRecordPerEndpointAndTagHandledException() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/7/availability/free-busy");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, new Object());
+        RequestSqlStats stats = RequestSqlStats.current();
+        stats.callStarted();
+        stats.statementExecuted();
+        stats.callStarted();
+        stats.rowRead(true);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/users/{userId}/availability/free-busy");
+        request.setAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE, new NotFoundException("Calendar not found"));
+        response.setStatus(404);
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        assertThat(RequestSqlStats.current()).isNull();
+        assertThat(registry.get(SchedulingMetrics.REQUEST_SQL_STATEMENTS)
+                .tag("method", "GET")
+                .tag("uri", "/api/users/{userId}/availability/free-busy")
+                .tag("exception", "NotFoundException")
+                .summary().totalAmount()).isEqualTo(1);
+        assertThat(registry.get(SchedulingMetrics.REQUEST_SQL_ROWS).summary().totalAmount()).isEqualTo(1);
+        assertThat(registry.get(SchedulingMetrics.REQUEST_SQL_TIME).timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void afterCompletion_ShouldNotRecordRows_WhenResultSetsAreNotProxied() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/users/7/meetings");
+
+        interceptor.preHandle(request, new MockHttpServletResponse(), new Object());
+        RequestSqlStats stats = RequestSqlStats.current();
+        stats.callStarted();
+        stats.statementExecuted();
+        interceptor.afterCompletion(request, new MockHttpServletResponse(), new Object(), null);
+
+        assertThat(registry.get(SchedulingMetrics.REQUEST_SQL_STATEMENTS).summary().count()).isEqualTo(1);
+        assertThat(registry.get(SchedulingMetrics.REQUEST_SQL_ROWS).summary().count()).isZero();
+    }
+
+    @Test
+    void preHandle_ShouldNotStartAccountingOnAsyncDispatch() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/7/slots/export");
+        request.setDispatcherType(DispatcherType.ASYNC);
+
+        interceptor.preHandle(request, new MockHttpServletResponse(), new Object());
+        interceptor.afterCompletion(request, new MockHttpServletResponse(), new Object(), null);
+
+        assertThat(registry.find(SchedulingMetrics.REQUEST_SQL_STATEMENTS).meters()).isEmpty();
+    }
+}
@@ -0,0 +1,62 @@
+package com.org.mini_doodle.observability;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SchedulingMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SchedulingMetrics metrics = new SchedulingMetrics(registry);
+
+    @Test
+    void freeBusyServed_ShouldTagByBucketedRangeAndBusyCount() {
+        metrics.freeBusyServed(metrics.start(), Duration.ofDays(7), 42);
+        metrics.freeBusyServed(metrics.start(), Duration.ofDays(5), 60);
+
+        Timer timer = registry.get(SchedulingMetrics.FREE_BUSY).tag("range", "1w").tag("busy", "11-100").timer();
+        assertThat(timer.count()).isEqualTo(2);
+        assertThat(registry.find(SchedulingMetrics.FREE_BUSY).timers()).hasSize(1);
+    }
+
+    @Test
+    void meetingScheduled_ShouldTagByParticipantBucketAndOutcome() {
+        metrics.meetingScheduled(metrics.start(), 50, "booked");
+        metrics.meetingScheduled(metrics.start(), 1, "conflict");
+
+        assertThat(registry.get(SchedulingMetrics.MEETING_SCHEDULE)
+                .tag("participants", "21-100").tag("outcome", "booked").timer().count()).isEqualTo(1);
+        assertThat(registry.get(SchedulingMetrics.MEETING_SCHEDULE)
+                .tag("participants", "1").tag("outcome", "conflict").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void overlapChecked_ShouldResolveSubMillisecondChecks() {
+        // the simple registry keeps no histogram buckets
+        PrometheusMeterRegistry prometheus = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        SchedulingMetrics prometheusMetrics = new SchedulingMetrics(prometheus);
+        prometheusMetrics.overlapChecked(prometheusMetrics.start(), false);
+
+        Timer timer = prometheus.get(SchedulingMetrics.OVERLAP_CHECK).tag("outcome", "clear").timer();
+        assertThat(timer.takeSnapshot().histogramCounts())
+                .anySatisfy(bucket -> assertThat(bucket.bucket(TimeUnit.MICROSECONDS)).isLessThan(10));
+    }
+
+    @Test
+    void errorCounters_ShouldBeRegisteredUpFrontAndCountByType() {
+        metrics.overlapConflict();
+        metrics.overlapConflict();
+        metrics.notFound();
+
+        assertThat(registry.get(SchedulingMetrics.ERRORS).tag("type", "overlap_conflict").counter().count()).isEqualTo(2);
+        assertThat(registry.get(SchedulingMetrics.ERRORS).tag("type", "not_found").counter().count()).isEqualTo(1);
+        assertThat(registry.get(SchedulingMetrics.ERRORS).tag("type", "optimistic_lock").counter().count()).isZero();
+    }
+}
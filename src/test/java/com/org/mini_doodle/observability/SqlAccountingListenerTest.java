@@ -0,0 +1,104 @@
+package com.org.mini_doodle.observability;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlAccountingListenerTest {
+
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setup() throws Exception {
+        dataSource = SqlAccountingDataSourceWrapper.wrap("test", h2(), true);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists items (id int primary key)");
+            statement.execute("delete from items");
+        }
+    }
+
+    @AfterEach
+    void cleanup() {
+        RequestSqlStats.end();
+    }
+
+    @Test
+    void proxiedCalls_ShouldBeAttributedToTheCurrentRequest() throws Exception {
+        RequestSqlStats stats = RequestSqlStats.begin();
+
+        try (Connection connection = dataSource.getConnection()) {
+            try (PreparedStatement insert = connection.prepareStatement("insert into items (id) values (?)")) {
+                for (int id = 1; id <= 3; id++) {
+                    insert.setInt(1, id);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            try (PreparedStatement select = connection.prepareStatement("select id from items order by id");
+                 ResultSet rows = select.executeQuery()) {
+                while (rows.next()) {
+                    rows.getInt(1);
+                }
+            }
+        }
+
+        assertThat(stats.statements()).isEqualTo(2);
+        assertThat(stats.rows()).isEqualTo(3);
+        assertThat(stats.jdbcNanos()).isPositive();
+        assertThat(stats.connectionWaitNanos()).isPositive();
+    }
+
+    @Test
+    void statementOnlyProxy_ShouldLeaveRowsUncounted() throws Exception {
+        DataSource statementsOnly = SqlAccountingDataSourceWrapper.wrap("statements", h2(), false);
+        RequestSqlStats stats = RequestSqlStats.begin();
+
+        try (Connection connection = statementsOnly.getConnection(); Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("select count(*) from items")) {
+            rows.next();
+        }
+
+        assertThat(stats.statements()).isEqualTo(1);
+        assertThat(stats.rowsCounted()).isFalse();
+    }
+
+    @Test
+    void commitAndRollback_ShouldCountAsJdbcTimeButNotAsStatements() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            RequestSqlStats stats = RequestSqlStats.begin();
+
+            connection.commit();
+            long afterCommit = stats.jdbcNanos();
+            connection.rollback();
+
+            assertThat(afterCommit).isPositive();
+            assertThat(stats.jdbcNanos()).isGreaterThan(afterCommit);
+            assertThat(stats.statements()).isZero();
+        }
+    }
+
+    @Test
+    void proxiedCalls_ShouldNotBeAccountedOutsideARequest() throws Exception {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.executeQuery("select count(*) from items").close();
+        }
+
+        assertThat(RequestSqlStats.current()).isNull();
+    }
+
+    private static DataSource h2() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:sql-accounting;DB_CLOSE_DELAY=-1");
+        return h2;
+    }
+}
@@ -0,0 +1,84 @@
+package com.org.mini_doodle.repository;
+
+import com.org.mini_doodle.domain.Slot;
+import com.org.mini_doodle.domain.User;
+import com.org.mini_doodle.dto.request.CreateSlotRequest;
+import com.org.mini_doodle.service.SlotService;
+import com.org.mini_doodle.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Simulates rows left behind by identity columns: ids written past the sequence before the application starts.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:id-sequence-alignment;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop"})
+class IdSequenceAlignmentTest {
+
+    @Autowired
+    private IdSequenceAlignment idSequenceAlignment;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private SlotService slotService;
+
+    private final OffsetDateTime nine = OffsetDateTime.parse("2030-01-07T09:00:00Z");
+
+    @Test
+    void afterSingletonsInstantiated_ShouldMoveSlotSequencePastExistingIds() {
+        User user = newUser();
+        Long calendarId = userService.findPersonalCalendarId(user.getId()).orElseThrow();
+        jdbcTemplate.update("insert into slots (id, calendar_id, start_time, end_time, status, version) " +
+                "values (5000, ?, ?, ?, 'FREE', 0)", calendarId, nine, nine.plusMinutes(30));
+
+        idSequenceAlignment.afterSingletonsInstantiated();
+        Slot created = slotService.createSlotForUser(user.getId(), new CreateSlotRequest(nine.plusHours(1), 30));
+
+        assertThat(created.getId()).isGreaterThan(5000L);
+    }
+
+    @Test
+    void afterSingletonsInstantiated_ShouldMoveMeetingAndParticipantSequencesPastExistingIds() {
+        User user = newUser();
+        Slot slot = slotService.createSlotForUser(user.getId(), new CreateSlotRequest(nine.plusHours(2), 30));
+        jdbcTemplate.update("insert into meetings (id, slot_id, title) values (7000, ?, 'Legacy')", slot.getId());
+        jdbcTemplate.update("insert into participants (id, meeting_id, user_id) values (9000, 7000, ?)", user.getId());
+
+        idSequenceAlignment.afterSingletonsInstantiated();
+
+        assertThat(jdbcTemplate.queryForObject("select nextval('meeting_seq')", Long.class)).isGreaterThan(7049L);
+        assertThat(jdbcTemplate.queryForObject("select nextval('participant_seq')", Long.class)).isGreaterThan(9049L);
+    }
+
+    @Test
+    void afterSingletonsInstantiated_ShouldNotMoveSequenceBack() {
+        User user = newUser();
+        Slot first = slotService.createSlotForUser(user.getId(), new CreateSlotRequest(nine, 30));
+        jdbcTemplate.execute("alter sequence slot_seq restart with 100000");
+
+        idSequenceAlignment.afterSingletonsInstantiated();
+        Long next = jdbcTemplate.queryForObject("select nextval('slot_seq')", Long.class);
+
+        assertThat(first.getId()).isLessThan(100000L);
+        assertThat(next).isGreaterThan(100000L);
+    }
+
+    private User newUser() {
+        return userService.createUser(UUID.randomUUID() + "@example.com", "Sequence");
+    }
+}
@@ -0,0 +1,124 @@
+package com.org.mini_doodle.repository;
+
+import com.org.mini_doodle.domain.Slot;
+import com.org.mini_doodle.domain.User;
+import com.org.mini_doodle.dto.request.CreateSlotRequest;
+import com.org.mini_doodle.exception.OverlapConflictException;
+import com.org.mini_doodle.service.SlotService;
+import com.org.mini_doodle.service.UserService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs against a Postgres binary started locally by embedded-postgres; enabled with {@code -Ppostgres-it}.
+ */
+@Tag("postgres")
+@SpringBootTest(properties = "mini-doodle.slots.overlap-mode=exclusion")
+class SlotExclusionConstraintTest {
+
+    private static final EmbeddedPostgres POSTGRES = start();
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private SlotService slotService;
+
+    private final OffsetDateTime nine = OffsetDateTime.parse("2030-01-07T09:00:00Z");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        POSTGRES.close();
+    }
+
+    @Test
+    void createSlotForUser_ShouldLetOnlyOneOfConcurrentOverlappingSlotsIn() throws Exception {
+        User user = newUser();
+        int writers = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(writers)) {
+            for (int i = 0; i < writers; i++) {
+                int offset = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        slotService.createSlotForUser(user.getId(), new CreateSlotRequest(nine.plusMinutes(offset), 30));
+                        created.incrementAndGet();
+                    } catch (OverlapConflictException ex) {
+                        conflicts.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) future.get();
+        }
+
+        assertThat(created.get()).isEqualTo(1);
+        assertThat(conflicts.get()).isEqualTo(writers - 1);
+    }
+
+    @Test
+    void createSlotForUser_ShouldAllowAdjacentSlotsAndOtherCalendars() {
+        User user = newUser();
+        User other = newUser();
+
+        slotService.createSlotForUser(user.getId(), new CreateSlotRequest(nine, 30));
+        slotService.createSlotForUser(user.getId(), new CreateSlotRequest(nine.plusMinutes(30), 30));
+        slotService.createSlotForUser(other.getId(), new CreateSlotRequest(nine, 30));
+    }
+
+    @Test
+    void modifyTimes_ShouldRejectMoveOntoAnotherSlot() {
+        User user = newUser();
+        slotService.createSlotForUser(user.getId(), new CreateSlotRequest(nine, 30));
+        Slot later = slotService.createSlotForUser(user.getId(), new CreateSlotRequest(nine.plusHours(1), 30));
+
+        assertThatThrownBy(() -> slotService.modifyTimes(user.getId(), later.getId(), nine.plusMinutes(15), nine.plusMinutes(45)))
+                .isInstanceOf(OverlapConflictException.class);
+    }
+
+    private User newUser() {
+        String name = UUID.randomUUID().toString();
+        return userService.createUser(name + "@example.com", name);
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -1,20 +1,32 @@
 package com.org.mini_doodle.service;
 
 import com.org.mini_doodle.domain.*;
+import com.org.mini_doodle.dto.response.BucketAvailability;
+import com.org.mini_doodle.dto.response.FreeBusyEntry;
 import com.org.mini_doodle.dto.response.FreeBusyResponse;
+import com.org.mini_doodle.event.SlotChangeType;
+import com.org.mini_doodle.event.SlotChangedEvent;
 import com.org.mini_doodle.exception.NotFoundException;
-import com.org.mini_doodle.repository.CalendarRepository;
+import com.org.mini_doodle.observability.SchedulingMetrics;
 import com.org.mini_doodle.repository.SlotRepository;
+import com.org.mini_doodle.repository.projection.CalendarInterval;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -26,25 +38,27 @@ class AvailabilityServiceTest {
     private SlotRepository slotRepository;
 
     @Mock
-    private CalendarRepository calendarRepository;
+    private CalendarCache calendarCache;
+
+    @Spy
+    private FreeBusyCache freeBusyCache = new FreeBusyCache(100, Duration.ofMinutes(5));
+
+    @Spy
+    private SchedulingMetrics schedulingMetrics = new SchedulingMetrics(new SimpleMeterRegistry());
 
     @InjectMocks
     private AvailabilityService availabilityService;
 
-    private User subin;
-    private Calendar calendar;
     private OffsetDateTime now;
 
     @BeforeEach
     void setup() {
-        now = OffsetDateTime.now();
-        subin = User.builder().id(1L).email("subin@example.com").name("Subin").build();
-        calendar = Calendar.builder().id(10L).owner(subin).name("Personal").build();
+        now = OffsetDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 
     @Test
     void freeBusyForUser_ShouldThrow_WhenCalendarNotFound() {
-        when(calendarRepository.findByOwnerId(1L)).thenReturn(Optional.empty());
+        when(calendarCache.findCalendarId(1L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> availabilityService.freeBusyForUser(1L, now, now.plusHours(2)))
                 .isInstanceOf(NotFoundException.class)
@@ -53,39 +67,28 @@ class AvailabilityServiceTest {
 
     @Test
     void freeBusyForUser_ShouldReturnBusyAndFreeIntervals() {
-        Slot busy1 = Slot.builder()
-                .id(100L).calendar(calendar)
-                .status(SlotStatus.BUSY)
-                .startTime(now.plusMinutes(30))
-                .endTime(now.plusMinutes(60))
-                .build();
-
-        Slot busy2 = Slot.builder()
-                .id(101L).calendar(calendar)
-                .status(SlotStatus.BUSY)
-                .startTime(now.plusMinutes(50))
-                .endTime(now.plusMinutes(90))
-                .build();
-
-        when(calendarRepository.findByOwnerId(1L)).thenReturn(Optional.of(calendar));
-        when(slotRepository.findByCalendarAndStartTimeBetween(calendar, now, now.plusHours(2)))
+        CalendarInterval busy1 = new CalendarInterval(10L, now.plusMinutes(30), now.plusMinutes(60));
+        CalendarInterval busy2 = new CalendarInterval(10L, now.plusMinutes(50), now.plusMinutes(90));
+
+        when(calendarCache.findCalendarId(1L)).thenReturn(Optional.of(10L));
+        when(slotRepository.findIntervalsByCalendarIds(List.of(10L), SlotStatus.BUSY, now, now.plusHours(2)))
                 .thenReturn(List.of(busy1, busy2));
 
         FreeBusyResponse response = availabilityService.freeBusyForUser(1L, now, now.plusHours(2));
 
         assertThat(response.busy()).hasSize(1); // merged
-        assertThat(response.busy().get(0).start()).isEqualTo(busy1.getStartTime());
-        assertThat(response.busy().get(0).end()).isEqualTo(busy2.getEndTime());
+        assertThat(response.busy().get(0).start()).isEqualTo(busy1.startTime());
+        assertThat(response.busy().get(0).end()).isEqualTo(busy2.endTime());
 
         assertThat(response.free()).hasSize(2);
         assertThat(response.free().get(0).start()).isEqualTo(now);
-        assertThat(response.free().get(0).end()).isEqualTo(busy1.getStartTime());
+        assertThat(response.free().get(0).end()).isEqualTo(busy1.startTime());
     }
 
     @Test
     void freeBusyForUser_ShouldReturnAllFree_WhenNoBusySlots() {
-        when(calendarRepository.findByOwnerId(1L)).thenReturn(Optional.of(calendar));
-        when(slotRepository.findByCalendarAndStartTimeBetween(calendar, now, now.plusHours(1)))
+        when(calendarCache.findCalendarId(1L)).thenReturn(Optional.of(10L));
+        when(slotRepository.findIntervalsByCalendarIds(List.of(10L), SlotStatus.BUSY, now, now.plusHours(1)))
                 .thenReturn(List.of());
 
         FreeBusyResponse response = availabilityService.freeBusyForUser(1L, now, now.plusHours(1));
@@ -95,12 +98,101 @@ class AvailabilityServiceTest {
     }
 
     @Test
-    void bucketedForUser_ShouldReturnBuckets() {
-        List<TimeInterval> buckets = availabilityService.bucketedForUser(1L, now, now.plusHours(2), Duration.ofMinutes(30));
+    void freeBusyForUser_ShouldServeRepeatedRangeFromCacheUntilCalendarChanges() {
+        when(calendarCache.findCalendarId(1L)).thenReturn(Optional.of(10L));
+        when(slotRepository.findIntervalsByCalendarIds(List.of(10L), SlotStatus.BUSY, now, now.plusHours(1)))
+                .thenReturn(List.of());
+
+        FreeBusyResponse first = availabilityService.freeBusyForUser(1L, now, now.plusHours(1));
+        FreeBusyResponse second = availabilityService.freeBusyForUser(1L, now, now.plusHours(1));
+        freeBusyCache.onSlotChanged(new SlotChangedEvent(20L, 7L, SlotChangeType.CREATED, now, now.plusMinutes(5), SlotStatus.FREE));
+        availabilityService.freeBusyForUser(1L, now, now.plusHours(1));
+        freeBusyCache.onSlotChanged(new SlotChangedEvent(10L, 5L, SlotChangeType.BOOKED, now, now.plusMinutes(5), SlotStatus.BUSY));
+        availabilityService.freeBusyForUser(1L, now, now.plusHours(1));
+
+        assertThat(second).isSameAs(first);
+        verify(slotRepository, times(2)).findIntervalsByCalendarIds(List.of(10L), SlotStatus.BUSY, now, now.plusHours(1));
+        assertThat(freeBusyCache.stats().hitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void streamFreeBusy_ShouldEmitMergedIntervalsInOrder() {
+        when(slotRepository.streamIntervalsByCalendarId(10L, SlotStatus.BUSY, now, now.plusHours(3)))
+                .thenReturn(Stream.of(
+                        new CalendarInterval(10L, now.minusMinutes(10), now.plusMinutes(20)),
+                        new CalendarInterval(10L, now.plusMinutes(60), now.plusMinutes(90)),
+                        new CalendarInterval(10L, now.plusMinutes(80), now.plusMinutes(120))));
+
+        List<FreeBusyEntry> entries = new ArrayList<>();
+        availabilityService.streamFreeBusy(10L, now, now.plusHours(3), entries::add);
+
+        assertThat(entries).containsExactly(
+                new FreeBusyEntry(SlotStatus.BUSY, now.minusMinutes(10), now.plusMinutes(20)),
+                new FreeBusyEntry(SlotStatus.FREE, now.plusMinutes(20), now.plusMinutes(60)),
+                new FreeBusyEntry(SlotStatus.BUSY, now.plusMinutes(60), now.plusMinutes(120)),
+                new FreeBusyEntry(SlotStatus.FREE, now.plusMinutes(120), now.plusHours(3)));
+    }
+
+    @Test
+    void commonFreeForUsers_ShouldIntersectFreeTimeAcrossCalendars() {
+        when(calendarCache.findCalendarIds(Set.of(1L, 2L))).thenReturn(Map.of(1L, 10L, 2L, 20L));
+        when(slotRepository.findIntervalsByCalendarIds(List.of(10L, 20L), SlotStatus.BUSY, now, now.plusHours(4)))
+                .thenReturn(List.of(
+                        new CalendarInterval(10L, now.plusMinutes(30), now.plusMinutes(60)),
+                        new CalendarInterval(10L, now.plusMinutes(150), now.plusMinutes(170)),
+                        new CalendarInterval(20L, now.plusMinutes(50), now.plusMinutes(120)),
+                        new CalendarInterval(20L, now.plusMinutes(200), now.plusMinutes(300))));
+
+        List<TimeInterval> free = availabilityService.commonFreeForUsers(List.of(1L, 2L), now, now.plusHours(4), Duration.ofMinutes(25));
+
+        assertThat(free).containsExactly(
+                new TimeInterval(now, now.plusMinutes(30)),
+                new TimeInterval(now.plusMinutes(120), now.plusMinutes(150)),
+                new TimeInterval(now.plusMinutes(170), now.plusMinutes(200)));
+    }
+
+    @Test
+    void commonFreeForUsers_ShouldThrow_WhenAnyCalendarMissing() {
+        when(calendarCache.findCalendarIds(Set.of(1L, 2L, 3L))).thenReturn(Map.of(1L, 10L));
+
+        assertThatThrownBy(() -> availabilityService.commonFreeForUsers(List.of(1L, 2L, 3L), now, now.plusHours(1), Duration.ZERO))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageContaining("[2, 3]");
+    }
+
+    @Test
+    void bucketedForUser_ShouldReturnBucketOccupancy() {
+        OffsetDateTime from = OffsetDateTime.parse("2025-08-18T09:00:00Z");
+        when(calendarCache.findCalendarId(1L)).thenReturn(Optional.of(10L));
+        when(slotRepository.findIntervalsByCalendarIds(List.of(10L), SlotStatus.BUSY, from, from.plusHours(2)))
+                .thenReturn(List.of(
+                        new CalendarInterval(10L, from.plusMinutes(30), from.plusMinutes(60)),
+                        new CalendarInterval(10L, from.plusMinutes(75), from.plusMinutes(100))));
+
+        List<BucketAvailability> buckets = availabilityService.bucketedForUser(1L, from, from.plusHours(2), Duration.ofMinutes(30));
 
         assertThat(buckets).hasSize(4);
-        assertThat(buckets.get(0).start()).isEqualTo(now);
-        assertThat(buckets.get(0).end()).isEqualTo(now.plusMinutes(30));
-        assertThat(buckets.getLast().end()).isEqualTo(now.plusHours(2));
+        assertThat(buckets.get(0).start()).isEqualTo(from);
+        assertThat(buckets.get(0).end()).isEqualTo(from.plusMinutes(30));
+        assertThat(buckets.getLast().end()).isEqualTo(from.plusHours(2));
+        assertThat(buckets).extracting(BucketAvailability::state)
+                .containsExactly(BucketState.FREE, BucketState.BUSY, BucketState.PARTIAL, BucketState.PARTIAL);
+        assertThat(buckets.get(2).busyFraction()).isEqualTo(0.5);
+        assertThat(buckets.get(3).busyFraction()).isCloseTo(10.0 / 30, within(1e-9));
+    }
+
+    @Test
+    void bucketedForUser_ShouldRejectSubMinuteGranularity() {
+        assertThatThrownBy(() -> availabilityService.bucketedForUser(1L, now, now.plusHours(1), Duration.ofSeconds(90)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("whole number of minutes");
+    }
+
+    @Test
+    void bucketedForUser_ShouldRejectMoreThanTenThousandBuckets() {
+        assertThatThrownBy(() -> availabilityService.bucketedForUser(1L, now, now.plusDays(366), Duration.ofMinutes(1)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("10000 buckets");
+        verifyNoInteractions(slotRepository);
     }
 }
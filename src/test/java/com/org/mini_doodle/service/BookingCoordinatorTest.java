@@ -0,0 +1,173 @@
+package com.org.mini_doodle.service;
+
+import com.org.mini_doodle.domain.Meeting;
+import com.org.mini_doodle.domain.SlotStatus;
+import com.org.mini_doodle.dto.request.ScheduleMeetingRequest;
+import com.org.mini_doodle.event.SlotChangeType;
+import com.org.mini_doodle.event.SlotChangedEvent;
+import com.org.mini_doodle.exception.OverlapConflictException;
+import com.org.mini_doodle.exception.OwnershipViolationException;
+import com.org.mini_doodle.observability.SchedulingMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@org.junit.jupiter.api.extension.ExtendWith(MockitoExtension.class)
+class BookingCoordinatorTest {
+
+    private static final int BOOKERS = 200;
+
+    @Mock
+    private MeetingService meetingService;
+
+    @Mock
+    private BookingPipeline bookingPipeline;
+
+    @Mock
+    private UserService userService;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private BookingCoordinator bookingCoordinator;
+
+    private ScheduleMeetingRequest request;
+
+    @BeforeEach
+    void setup() {
+        bookingCoordinator = coordinator(BookingMode.DIRECT, Duration.ofMinutes(1));
+        lenient().when(userService.findPersonalCalendarId(anyLong())).thenReturn(Optional.of(1L));
+        request = new ScheduleMeetingRequest(10L, "Sync", null, List.of(2L));
+    }
+
+    @Test
+    void schedule_ShouldLetExactlyOneOfManyConcurrentBookersWin() throws Exception {
+        when(meetingService.schedule(any(Long.class), eq(request))).thenAnswer(invocation -> {
+            Thread.sleep(5); // stands in for the booking transaction
+            return Meeting.builder().id(1L).build();
+        });
+
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger wins = new AtomicInteger();
+        AtomicInteger rejections = new AtomicInteger();
+        List<Future<?>> bookers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < BOOKERS; i++) {
+                long userId = i;
+                bookers.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        bookingCoordinator.schedule(userId, request);
+                        wins.incrementAndGet();
+                    } catch (OverlapConflictException ex) {
+                        rejections.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> booker : bookers) booker.get();
+        }
+
+        assertThat(wins.get()).isEqualTo(1);
+        assertThat(rejections.get()).isEqualTo(BOOKERS - 1);
+        verify(meetingService, times(1)).schedule(any(Long.class), eq(request));
+    }
+
+    @Test
+    void schedule_ShouldRejectWithoutCallingServiceOnceSlotIsBooked() {
+        bookingCoordinator.onSlotChanged(new SlotChangedEvent(1L, 10L, SlotChangeType.BOOKED,
+                OffsetDateTime.now(), OffsetDateTime.now().plusHours(1), SlotStatus.BUSY));
+
+        assertThatThrownBy(() -> bookingCoordinator.schedule(5L, request))
+                .isInstanceOf(OverlapConflictException.class);
+        verifyNoInteractions(meetingService);
+    }
+
+    @Test
+    void schedule_ShouldTimeBookingsAndShortcutRejectionsByOutcome() {
+        when(meetingService.schedule(5L, request)).thenReturn(Meeting.builder().id(1L).build());
+
+        bookingCoordinator.schedule(5L, request);
+        assertThatThrownBy(() -> bookingCoordinator.schedule(5L, request))
+                .isInstanceOf(OverlapConflictException.class);
+
+        assertThat(registry.get(SchedulingMetrics.MEETING_SCHEDULE).tag("outcome", "booked").timer().count()).isEqualTo(1);
+        assertThat(registry.get(SchedulingMetrics.MEETING_SCHEDULE).tag("outcome", "conflict").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void schedule_ShouldLeaveNonOwnerToService_WhenSlotIsBooked() {
+        bookingCoordinator.onSlotChanged(SlotChangedEvent.booked(1L, 10L));
+        when(userService.findPersonalCalendarId(6L)).thenReturn(Optional.of(2L));
+        when(meetingService.schedule(6L, request))
+                .thenThrow(new OwnershipViolationException("Slot does not belong to the user's calendar"));
+
+        assertThatThrownBy(() -> bookingCoordinator.schedule(6L, request))
+                .isInstanceOf(OwnershipViolationException.class);
+    }
+
+    @Test
+    void schedule_ShouldNotRememberConflictsItDidNotConfirm() {
+        when(meetingService.schedule(5L, request))
+                .thenThrow(new OverlapConflictException("Slot not available"))
+                .thenReturn(Meeting.builder().id(1L).build());
+
+        assertThatThrownBy(() -> bookingCoordinator.schedule(5L, request))
+                .isInstanceOf(OverlapConflictException.class);
+
+        assertThat(bookingCoordinator.schedule(5L, request).getId()).isEqualTo(1L);
+    }
+
+    @Test
+    void schedule_ShouldRetryServiceAfterSlotIsFreedAgain() {
+        bookingCoordinator.onSlotChanged(SlotChangedEvent.booked(1L, 10L));
+        bookingCoordinator.onSlotChanged(new SlotChangedEvent(1L, 10L, SlotChangeType.STATUS_CHANGED,
+                OffsetDateTime.now(), OffsetDateTime.now().plusHours(1), SlotStatus.FREE));
+        when(meetingService.schedule(5L, request)).thenReturn(Meeting.builder().id(1L).build());
+
+        assertThat(bookingCoordinator.schedule(5L, request).getId()).isEqualTo(1L);
+    }
+
+    @Test
+    void schedule_ShouldForgetBookedSlot_AfterTtl() {
+        BookingCoordinator forgetful = coordinator(BookingMode.DIRECT, Duration.ZERO);
+        forgetful.onSlotChanged(SlotChangedEvent.booked(1L, 10L));
+        when(meetingService.schedule(5L, request)).thenReturn(Meeting.builder().id(1L).build());
+
+        assertThat(forgetful.schedule(5L, request).getId()).isEqualTo(1L);
+    }
+
+    @Test
+    void schedule_ShouldHandOffToPipeline_WhenPipelined() {
+        BookingCoordinator pipelined = coordinator(BookingMode.PIPELINED, Duration.ofMinutes(1));
+        when(bookingPipeline.schedule(5L, request)).thenReturn(Meeting.builder().id(1L).build());
+
+        assertThat(pipelined.schedule(5L, request).getId()).isEqualTo(1L);
+        verifyNoInteractions(meetingService);
+    }
+
+    private BookingCoordinator coordinator(BookingMode mode, Duration takenSlotsTtl) {
+        return new BookingCoordinator(meetingService, bookingPipeline, userService, new SchedulingMetrics(registry), mode,
+                64, Duration.ofSeconds(5), 1000, takenSlotsTtl);
+    }
+}
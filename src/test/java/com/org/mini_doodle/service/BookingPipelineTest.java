@@ -0,0 +1,217 @@
+package com.org.mini_doodle.service;
+
+import com.org.mini_doodle.domain.Meeting;
+import com.org.mini_doodle.dto.request.ScheduleMeetingRequest;
+import com.org.mini_doodle.exception.NotFoundException;
+import com.org.mini_doodle.exception.OverlapConflictException;
+import com.org.mini_doodle.service.MeetingService.BatchBooking;
+import com.org.mini_doodle.service.MeetingService.BatchOutcome;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingPipelineTest {
+
+    private static final int BURST = 20;
+
+    @Mock
+    private MeetingService meetingService;
+
+    @Mock
+    private UserService userService;
+
+    private BookingPipeline pipeline;
+
+    @BeforeEach
+    void setup() {
+        pipeline = new BookingPipeline(meetingService, userService, 32, Duration.ofSeconds(5));
+        when(userService.findPersonalCalendarId(anyLong())).thenReturn(Optional.of(1L));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+    }
+
+    @Test
+    void schedule_ShouldCommitQueuedBookingsOfOneCalendarTogether() throws Exception {
+        CountDownLatch firstBatchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstBatch = new CountDownLatch(1);
+        AtomicInteger batches = new AtomicInteger();
+        when(meetingService.scheduleBatch(anyList())).thenAnswer(invocation -> {
+            if (batches.incrementAndGet() == 1) {
+                firstBatchStarted.countDown();
+                releaseFirstBatch.await();
+            }
+            List<BatchBooking> bookings = invocation.getArgument(0);
+            return bookings.stream()
+                    .map(b -> new BatchOutcome(Meeting.builder().id(b.request().slotId()).build(), null))
+                    .toList();
+        });
+
+        Thread first = Thread.ofPlatform().start(() -> pipeline.schedule(5L, request(0L)));
+        assertThat(firstBatchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        AtomicReferenceArray<Meeting> meetings = new AtomicReferenceArray<>(BURST);
+        List<Thread> burst = new ArrayList<>();
+        for (int i = 0; i < BURST; i++) {
+            long slotId = i + 1;
+            int index = i;
+            burst.add(Thread.ofPlatform().start(() -> meetings.set(index, pipeline.schedule(5L, request(slotId)))));
+        }
+        awaitBlocked(burst);
+        releaseFirstBatch.countDown();
+        first.join();
+        for (Thread booker : burst) booker.join();
+
+        for (int i = 0; i < BURST; i++) {
+            assertThat(meetings.get(i).getId()).isEqualTo(i + 1L);
+        }
+        verify(meetingService, times(2)).scheduleBatch(anyList());
+        verify(meetingService, never()).schedule(any(), any());
+    }
+
+    @Test
+    void schedule_ShouldRejectDuplicateSlotWithoutCommittingIt() throws Exception {
+        CountDownLatch firstBatchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstBatch = new CountDownLatch(1);
+        AtomicInteger batches = new AtomicInteger();
+        List<Integer> batchSizes = new ArrayList<>();
+        when(meetingService.scheduleBatch(anyList())).thenAnswer(invocation -> {
+            List<BatchBooking> bookings = invocation.getArgument(0);
+            batchSizes.add(bookings.size());
+            if (batches.incrementAndGet() == 1) {
+                firstBatchStarted.countDown();
+                releaseFirstBatch.await();
+            }
+            return bookings.stream().map(b -> new BatchOutcome(Meeting.builder().id(1L).build(), null)).toList();
+        });
+
+        Thread first = Thread.ofPlatform().start(() -> pipeline.schedule(5L, request(99L)));
+        assertThat(firstBatchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        AtomicInteger wins = new AtomicInteger();
+        AtomicInteger rejections = new AtomicInteger();
+        List<Thread> racers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            racers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    pipeline.schedule(5L, request(10L));
+                    wins.incrementAndGet();
+                } catch (OverlapConflictException ex) {
+                    rejections.incrementAndGet();
+                }
+            }));
+        }
+        awaitBlocked(racers);
+        releaseFirstBatch.countDown();
+        first.join();
+        for (Thread racer : racers) racer.join();
+
+        assertThat(wins).hasValue(1);
+        assertThat(rejections).hasValue(4);
+        assertThat(batchSizes).containsExactly(1, 1);
+    }
+
+    @Test
+    void schedule_ShouldBookDuplicateSlot_WhenTheBookingAheadOfItFails() throws Exception {
+        CountDownLatch firstBatchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstBatch = new CountDownLatch(1);
+        AtomicInteger batches = new AtomicInteger();
+        List<Integer> batchSizes = new ArrayList<>();
+        when(meetingService.scheduleBatch(anyList())).thenAnswer(invocation -> {
+            List<BatchBooking> bookings = invocation.getArgument(0);
+            batchSizes.add(bookings.size());
+            if (batches.incrementAndGet() == 1) {
+                firstBatchStarted.countDown();
+                releaseFirstBatch.await();
+            }
+            return bookings.stream()
+                    .map(b -> b.request().participantUserIds().contains(404L)
+                            ? new BatchOutcome(null, new NotFoundException("User not found: 404"))
+                            : new BatchOutcome(Meeting.builder().id(b.userId()).build(), null))
+                    .toList();
+        });
+
+        Thread first = Thread.ofPlatform().start(() -> pipeline.schedule(5L, request(99L)));
+        assertThat(firstBatchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        AtomicReference<RuntimeException> failed = new AtomicReference<>();
+        Thread failing = Thread.ofPlatform().start(() -> {
+            try {
+                pipeline.schedule(5L, new ScheduleMeetingRequest(10L, "Sync", null, List.of(404L)));
+            } catch (NotFoundException ex) {
+                failed.set(ex);
+            }
+        });
+        awaitBlocked(List.of(failing));
+        AtomicReference<Meeting> booked = new AtomicReference<>();
+        Thread duplicate = Thread.ofPlatform().start(() -> booked.set(pipeline.schedule(6L, request(10L))));
+        awaitBlocked(List.of(duplicate));
+        releaseFirstBatch.countDown();
+        first.join();
+        failing.join();
+        duplicate.join();
+
+        assertThat(failed.get()).isNotNull();
+        assertThat(booked.get().getId()).isEqualTo(6L);
+        assertThat(batchSizes).containsExactly(1, 1, 1);
+    }
+
+    @Test
+    void schedule_ShouldRetryBookingsOneByOne_WhenBatchFailsToCommit() {
+        when(meetingService.scheduleBatch(anyList())).thenThrow(new IllegalStateException("commit failed"));
+        when(meetingService.schedule(5L, request(10L))).thenReturn(Meeting.builder().id(7L).build());
+
+        assertThat(pipeline.schedule(5L, request(10L)).getId()).isEqualTo(7L);
+    }
+
+    @Test
+    void schedule_ShouldReportFailedBookingToItsCaller() {
+        when(meetingService.scheduleBatch(anyList()))
+                .thenReturn(List.of(new BatchOutcome(null, new OverlapConflictException("Slot not available"))));
+
+        assertThatThrownBy(() -> pipeline.schedule(5L, request(10L)))
+                .isInstanceOf(OverlapConflictException.class)
+                .hasMessage("Slot not available");
+    }
+
+    private static ScheduleMeetingRequest request(Long slotId) {
+        return new ScheduleMeetingRequest(slotId, "Sync", null, List.of(2L));
+    }
+
+    /**
+     * Waits until every thread is parked waiting for its booking, i.e. has been queued. Callers are platform threads
+     * because before JDK 21.0.2 (JDK-8312498) a virtual thread in a timed park reports {@code WAITING}, never
+     * {@code TIMED_WAITING}, so the wait would run out its deadline while the callers' queue timeout expires.
+     */
+    private static void awaitBlocked(List<Thread> threads) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        for (Thread thread : threads) {
+            while (thread.getState() != Thread.State.TIMED_WAITING && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+        }
+    }
+}
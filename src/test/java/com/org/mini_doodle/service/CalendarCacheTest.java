@@ -0,0 +1,63 @@
+package com.org.mini_doodle.service;
+
+import com.org.mini_doodle.event.CalendarCreatedEvent;
+import com.org.mini_doodle.repository.CalendarRepository;
+import com.org.mini_doodle.repository.projection.CalendarOwner;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@org.junit.jupiter.api.extension.ExtendWith(MockitoExtension.class)
+class CalendarCacheTest {
+
+    @Mock
+    private CalendarRepository calendarRepository;
+
+    private CalendarCache calendarCache;
+
+    @BeforeEach
+    void setup() {
+        calendarCache = new CalendarCache(calendarRepository, 100);
+    }
+
+    @Test
+    void findCalendarId_ShouldHitRepositoryOnlyOnce() {
+        when(calendarRepository.findIdByOwnerId(1L)).thenReturn(Optional.of(10L));
+
+        assertThat(calendarCache.findCalendarId(1L)).contains(10L);
+        assertThat(calendarCache.findCalendarId(1L)).contains(10L);
+
+        verify(calendarRepository, times(1)).findIdByOwnerId(1L);
+        assertThat(calendarCache.stats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findCalendarId_ShouldNotCacheMissingCalendar() {
+        when(calendarRepository.findIdByOwnerId(1L)).thenReturn(Optional.empty(), Optional.of(10L));
+
+        assertThat(calendarCache.findCalendarId(1L)).isEmpty();
+        assertThat(calendarCache.findCalendarId(1L)).contains(10L);
+    }
+
+    @Test
+    void findCalendarIds_ShouldLoadOnlyMissesInOneQuery() {
+        calendarCache.onCalendarCreated(new CalendarCreatedEvent(1L, 10L));
+        when(calendarRepository.findCalendarIdsByOwnerIds(Set.of(2L, 3L)))
+                .thenReturn(List.of(new CalendarOwner(2L, 20L)));
+
+        Map<Long, Long> calendars = calendarCache.findCalendarIds(Set.of(1L, 2L, 3L));
+
+        assertThat(calendars).containsExactlyInAnyOrderEntriesOf(Map.of(1L, 10L, 2L, 20L));
+        verify(calendarRepository, times(1)).findCalendarIdsByOwnerIds(Set.of(2L, 3L));
+        verifyNoMoreInteractions(calendarRepository);
+    }
+}
@@ -0,0 +1,75 @@
+package com.org.mini_doodle.service;
+
+import com.org.mini_doodle.exception.OverlapConflictException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyStoreTest {
+
+    private final IdempotencyStore store = new IdempotencyStore(100, Duration.ofMinutes(5), Duration.ofSeconds(5));
+
+    @Test
+    void execute_ShouldCoalesceInFlightDuplicateOntoFirstExecution() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread first = Thread.ofVirtual().start(() -> store.execute("book", 1L, "key", "request", () -> {
+            executions.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "booked";
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        AtomicReference<String> duplicate = new AtomicReference<>();
+        Thread second = Thread.ofVirtual().start(() -> duplicate.set(store.execute("book", 1L, "key", "request", () -> {
+            executions.incrementAndGet();
+            return "booked twice";
+        })));
+        release.countDown();
+        first.join();
+        second.join();
+
+        assertThat(duplicate.get()).isEqualTo("booked");
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void execute_ShouldRunAgain_WhenFirstExecutionFailed() {
+        assertThatThrownBy(() -> store.execute("book", 1L, "key", "request", () -> {
+            throw new OverlapConflictException("Slot is being booked by another request");
+        })).isInstanceOf(OverlapConflictException.class);
+
+        assertThat(store.execute("book", 1L, "key", "request", () -> "booked")).isEqualTo("booked");
+    }
+
+    @Test
+    void execute_ShouldScopeKeysByOperationAndUser() {
+        store.execute("book", 1L, "key", "request", () -> "user 1");
+
+        assertThat(store.execute("book", 2L, "key", "request", () -> "user 2")).isEqualTo("user 2");
+        assertThat(store.execute("create", 1L, "key", "request", () -> "create")).isEqualTo("create");
+    }
+
+    @Test
+    void execute_ShouldRejectOverlongKey() {
+        assertThatThrownBy(() -> store.execute("book", 1L, "k".repeat(256), "request", () -> "booked"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
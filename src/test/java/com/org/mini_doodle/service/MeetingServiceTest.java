@@ -2,25 +2,31 @@ package com.org.mini_doodle.service;
 
 import com.org.mini_doodle.domain.*;
 import com.org.mini_doodle.dto.request.ScheduleMeetingRequest;
+import com.org.mini_doodle.event.SlotChangedEvent;
 import com.org.mini_doodle.exception.NotFoundException;
 import com.org.mini_doodle.exception.OverlapConflictException;
+import com.org.mini_doodle.exception.OwnershipViolationException;
 import com.org.mini_doodle.repository.MeetingRepository;
 import com.org.mini_doodle.repository.ParticipantRepository;
 import com.org.mini_doodle.repository.SlotRepository;
 import com.org.mini_doodle.repository.UserRepository;
+import com.org.mini_doodle.repository.projection.SlotOwnership;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class MeetingServiceTest {
@@ -33,6 +39,12 @@ class MeetingServiceTest {
     private UserRepository userRepository;
     @Mock
     private ParticipantRepository participantRepository;
+    @Mock
+    private UserService userService;
+    @Mock
+    private SlotChangeSequence slotChangeSequence;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private MeetingService meetingService;
@@ -62,6 +74,8 @@ class MeetingServiceTest {
                 .endTime(OffsetDateTime.now().plusHours(1))
                 .calendar(calendar)
                 .build();
+
+        when(userService.findPersonalCalendarId(1L)).thenReturn(Optional.of(1L));
     }
 
     @Test
@@ -75,15 +89,17 @@ class MeetingServiceTest {
                 List.of(7L, 8L)
         );
 
-        when(slotRepository.findById(slot.getId())).thenReturn(Optional.of(slot));
+        when(slotRepository.claimIfFree(slot.getId(), 1L)).thenReturn(1);
+        when(slotRepository.getReferenceById(slot.getId())).thenReturn(slot);
         when(meetingRepository.save(any(Meeting.class)))
                 .thenAnswer(inv -> {
                     Meeting m = inv.getArgument(0);
                     m.setId(100L);
                     return m;
                 });
-        when(userRepository.findById(7L)).thenReturn(Optional.of(User.builder().id(7L).build()));
-        when(userRepository.findById(8L)).thenReturn(Optional.of(User.builder().id(8L).build()));
+        when(userRepository.findExistingIds(Set.of(7L, 8L))).thenReturn(List.of(7L, 8L));
+        when(userRepository.getReferenceById(7L)).thenReturn(User.builder().id(7L).build());
+        when(userRepository.getReferenceById(8L)).thenReturn(User.builder().id(8L).build());
 
         // Act
         Meeting result = meetingService.schedule(userId, req);
@@ -91,16 +107,25 @@ class MeetingServiceTest {
         // Assert
         assertThat(result.getId()).isEqualTo(100L);
         assertThat(result.getTitle()).isEqualTo("Team Sync");
-        assertThat(slot.getStatus()).isEqualTo(SlotStatus.BUSY);
+        assertThat(result.getSlot().getId()).isEqualTo(slot.getId());
+        assertThat(result.getParticipants()).extracting(p -> p.getUser().getId()).containsExactly(7L, 8L);
 
         verify(meetingRepository, times(1)).save(any(Meeting.class));
         verify(participantRepository, times(1)).saveAll(anyList());
-        verify(slotRepository, times(1)).save(slot);
+        verify(userRepository, never()).findById(any());
+        verify(slotRepository, never()).findById(any());
+        verify(slotRepository, never()).save(any());
+        verify(slotRepository, never()).findOwnershipById(any());
+        var order = inOrder(slotChangeSequence, slotRepository);
+        order.verify(slotRepository).claimIfFree(slot.getId(), 1L);
+        order.verify(slotChangeSequence).recordUpdate(1L, slot.getId());
+        verify(eventPublisher).publishEvent(SlotChangedEvent.booked(1L, slot.getId()));
     }
 
     @Test
     void schedule_ShouldThrow_WhenSlotNotFound() {
-        when(slotRepository.findById(999L)).thenReturn(Optional.empty());
+        when(slotRepository.claimIfFree(999L, 1L)).thenReturn(0);
+        when(slotRepository.findOwnershipById(999L)).thenReturn(Optional.empty());
 
         ScheduleMeetingRequest req = new ScheduleMeetingRequest(
                 999L, "Demo", "Test", List.of(1L)
@@ -113,8 +138,8 @@ class MeetingServiceTest {
 
     @Test
     void schedule_ShouldThrow_WhenSlotAlreadyBusy() {
-        slot.setStatus(SlotStatus.BUSY);
-        when(slotRepository.findById(slot.getId())).thenReturn(Optional.of(slot));
+        when(slotRepository.claimIfFree(slot.getId(), 1L)).thenReturn(0);
+        when(slotRepository.findOwnershipById(slot.getId())).thenReturn(Optional.of(new SlotOwnership(1L, 200L)));
 
         ScheduleMeetingRequest req = new ScheduleMeetingRequest(
                 slot.getId(), "Conflict", "Test", List.of(1L)
@@ -123,25 +148,67 @@ class MeetingServiceTest {
         assertThatThrownBy(() -> meetingService.schedule(1L, req))
                 .isInstanceOf(OverlapConflictException.class)
                 .hasMessageContaining("Slot not available");
+        verify(userRepository, never()).findExistingIds(any());
+        verify(meetingRepository, never()).save(any(Meeting.class));
+        verifyNoInteractions(slotChangeSequence);
+    }
+
+    @Test
+    void schedule_ShouldThrowForbidden_WhenSlotBelongsToAnotherCalendar() {
+        when(slotRepository.claimIfFree(slot.getId(), 1L)).thenReturn(0);
+        when(slotRepository.findOwnershipById(slot.getId())).thenReturn(Optional.of(new SlotOwnership(2L, null)));
+
+        ScheduleMeetingRequest req = new ScheduleMeetingRequest(
+                slot.getId(), "Not mine", "Test", List.of(1L)
+        );
+
+        assertThatThrownBy(() -> meetingService.schedule(1L, req))
+                .isInstanceOf(OwnershipViolationException.class);
+        verify(meetingRepository, never()).save(any(Meeting.class));
+        verifyNoInteractions(slotChangeSequence);
     }
 
     @Test
     void schedule_ShouldThrow_WhenParticipantNotFound() {
-        when(slotRepository.findById(slot.getId())).thenReturn(Optional.of(slot));
-        when(meetingRepository.save(any(Meeting.class)))
-                .thenAnswer(inv -> {
-                    Meeting m = inv.getArgument(0);
-                    m.setId(200L);
-                    return m;
-                });
-        when(userRepository.findById(99L)).thenReturn(Optional.empty());
+        when(slotRepository.claimIfFree(slot.getId(), 1L)).thenReturn(1);
+        when(userRepository.findExistingIds(Set.of(7L, 98L, 99L))).thenReturn(List.of(7L));
 
         ScheduleMeetingRequest req = new ScheduleMeetingRequest(
-                slot.getId(), "With ghost", "Unknown user", List.of(99L)
+                slot.getId(), "With ghost", "Unknown user", List.of(7L, 98L, 99L)
         );
 
         assertThatThrownBy(() -> meetingService.schedule(1L, req))
                 .isInstanceOf(NotFoundException.class)
-                .hasMessageContaining("Participant user not found");
+                .hasMessageContaining("Participant users not found: [98, 99]");
+        verify(meetingRepository, never()).save(any(Meeting.class));
+    }
+
+    @Test
+    void scheduleBatch_ShouldBookOthers_WhenOneClaimLoses() {
+        ScheduleMeetingRequest won = new ScheduleMeetingRequest(slot.getId(), "First", null, List.of(7L));
+        ScheduleMeetingRequest lost = new ScheduleMeetingRequest(11L, "Second", null, List.of(7L, 8L));
+        ScheduleMeetingRequest ghost = new ScheduleMeetingRequest(12L, "Third", null, List.of(99L));
+        when(userRepository.findExistingIds(Set.of(7L, 8L, 99L))).thenReturn(List.of(7L, 8L));
+        when(slotRepository.claimIfFree(slot.getId(), 1L)).thenReturn(1);
+        when(slotRepository.claimIfFree(11L, 1L)).thenReturn(0);
+        when(slotRepository.findOwnershipById(11L)).thenReturn(Optional.of(new SlotOwnership(1L, 300L)));
+        when(slotRepository.getReferenceById(slot.getId())).thenReturn(slot);
+        when(meetingRepository.save(any(Meeting.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(userRepository.getReferenceById(7L)).thenReturn(User.builder().id(7L).build());
+
+        List<MeetingService.BatchOutcome> outcomes = meetingService.scheduleBatch(List.of(
+                new MeetingService.BatchBooking(1L, won),
+                new MeetingService.BatchBooking(1L, lost),
+                new MeetingService.BatchBooking(1L, ghost)));
+
+        assertThat(outcomes.get(0).meeting().getTitle()).isEqualTo("First");
+        assertThat(outcomes.get(1).failure()).isInstanceOf(OverlapConflictException.class);
+        assertThat(outcomes.get(2).failure()).isInstanceOf(NotFoundException.class);
+        verify(userRepository, times(1)).findExistingIds(any());
+        verify(slotRepository, never()).claimIfFree(eq(12L), any());
+        verify(slotChangeSequence).recordUpdate(1L, slot.getId());
+        verify(slotChangeSequence, never()).recordUpdate(1L, 11L);
+        verify(meetingRepository, times(1)).save(any(Meeting.class));
+        verify(eventPublisher).publishEvent(SlotChangedEvent.booked(1L, slot.getId()));
     }
 }
@@ -0,0 +1,116 @@
+package com.org.mini_doodle.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.org.mini_doodle.domain.SlotStatus;
+import com.org.mini_doodle.event.SlotChangeType;
+import com.org.mini_doodle.event.SlotChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+class SlotChangeFeedTest {
+
+    private static final OffsetDateTime START = OffsetDateTime.parse("2030-01-07T09:00:00Z");
+
+    @Mock
+    private UserService userService;
+
+    private SlotChangeFeed feed;
+
+    @BeforeEach
+    void setup() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        feed = new SlotChangeFeed(userService, objectMapper, 2, Duration.ofMinutes(5), Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.shutdown();
+    }
+
+    @Test
+    void onSlotChanged_ShouldPushOnlyToSubscribersOfThatCalendar() throws Exception {
+        RecordingEmitter mine = new RecordingEmitter(null);
+        RecordingEmitter other = new RecordingEmitter(null);
+        feed.subscribe(1L, mine);
+        feed.subscribe(2L, other);
+
+        feed.onSlotChanged(new SlotChangedEvent(1L, 10L, SlotChangeType.CREATED, START, START.plusMinutes(30), SlotStatus.FREE));
+
+        String sent = mine.sent.poll(5, TimeUnit.SECONDS);
+        assertThat(sent).startsWith("event:created\ndata:{\"slotId\":10,\"type\":\"CREATED\",\"status\":\"FREE\"");
+        assertThat(other.sent.poll(100, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void onSlotChanged_ShouldAskSlowSubscriberToResyncAndDropIt() throws Exception {
+        CountDownLatch unblock = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(unblock);
+        feed.subscribe(1L, slow);
+
+        for (long slotId = 1; slotId <= 5; slotId++) {
+            feed.onSlotChanged(SlotChangedEvent.deleted(1L, slotId));
+        }
+        assertThat(feed.subscriberCount()).isZero();
+        unblock.countDown();
+
+        String last;
+        String received = null;
+        while ((last = slow.sent.poll(5, TimeUnit.SECONDS)) != null) {
+            received = last;
+            if (last.startsWith("event:" + SlotChangeFeed.RESYNC)) break;
+        }
+        assertThat(received).startsWith("event:" + SlotChangeFeed.RESYNC);
+        assertThat(slow.completed.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    /**
+     * Records what would be written to the response; optionally blocks the first send like a slow client.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private final CountDownLatch unblock;
+
+        private RecordingEmitter(CountDownLatch unblock) {
+            this.unblock = unblock;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (unblock != null) {
+                try {
+                    unblock.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            List<String> parts = builder.build().stream().map(part -> part.getData().toString()).toList();
+            sent.add(parts.stream().collect(Collectors.joining()));
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed.countDown();
+        }
+    }
+}
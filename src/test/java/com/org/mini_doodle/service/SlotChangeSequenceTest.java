@@ -0,0 +1,121 @@
+package com.org.mini_doodle.service;
+
+import com.org.mini_doodle.domain.Slot;
+import com.org.mini_doodle.domain.SlotStatus;
+import com.org.mini_doodle.domain.User;
+import com.org.mini_doodle.dto.request.CreateSlotRequest;
+import com.org.mini_doodle.dto.request.ScheduleMeetingRequest;
+import com.org.mini_doodle.dto.response.SlotChangesResponse;
+import com.org.mini_doodle.dto.response.SlotResponse;
+import com.org.mini_doodle.event.SlotChangeType;
+import com.org.mini_doodle.event.SlotChangedEvent;
+import com.org.mini_doodle.exception.OverlapConflictException;
+import com.org.mini_doodle.repository.projection.SlotView;
+import com.org.mini_doodle.service.MeetingService.BatchBooking;
+import com.org.mini_doodle.service.MeetingService.BatchOutcome;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Interleaves a pipelined batch with a status change on the database, the way two requests race in production.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:slot-change-sequence;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop"})
+class SlotChangeSequenceTest {
+
+    @Autowired
+    private MeetingService meetingService;
+
+    @Autowired
+    private SlotService slotService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BookingPause bookingPause;
+
+    private final OffsetDateTime nine = OffsetDateTime.parse("2030-01-07T09:00:00Z");
+
+    @Test
+    void scheduleBatch_ShouldNotDeadlock_WhenStatusChangeLocksALaterSlotOfTheBatch() throws Exception {
+        User owner = newUser();
+        User participant = newUser();
+        Slot first = slotService.createSlotForUser(owner.getId(), new CreateSlotRequest(nine, 30));
+        Slot second = slotService.createSlotForUser(owner.getId(), new CreateSlotRequest(nine.plusHours(1), 30));
+        long since = slotService.changesForUser(owner.getId(), null, null, 10).nextSince();
+
+        // the batch claims the first slot, then waits until the status change of the second has committed
+        CountDownLatch statusChanged = new CountDownLatch(1);
+        bookingPause.pauseAfter(first.getId(), statusChanged);
+        CompletableFuture<List<BatchOutcome>> batch = CompletableFuture.supplyAsync(() -> meetingService.scheduleBatch(List.of(
+                new BatchBooking(owner.getId(), request(first.getId(), participant)),
+                new BatchBooking(owner.getId(), request(second.getId(), participant)))));
+        assertThat(bookingPause.reached.await(5, TimeUnit.SECONDS)).isTrue();
+
+        SlotView marked = slotService.markStatus(owner.getId(), second.getId(), SlotStatus.BUSY);
+        statusChanged.countDown();
+        List<BatchOutcome> outcomes = batch.get(10, TimeUnit.SECONDS);
+
+        assertThat(marked.status()).isEqualTo(SlotStatus.BUSY);
+        assertThat(outcomes.get(0).meeting()).isNotNull();
+        assertThat(outcomes.get(1).failure()).isInstanceOf(OverlapConflictException.class);
+        SlotChangesResponse changes = slotService.changesForUser(owner.getId(), since, null, 10);
+        assertThat(changes.changed()).extracting(SlotResponse::id).containsExactly(second.getId(), first.getId());
+        assertThat(changes.nextSince()).isEqualTo(since + 2);
+    }
+
+    private static ScheduleMeetingRequest request(Long slotId, User participant) {
+        return new ScheduleMeetingRequest(slotId, "Sync", null, List.of(participant.getId()));
+    }
+
+    private User newUser() {
+        return userService.createUser(UUID.randomUUID() + "@example.com", "Sequence");
+    }
+
+    @TestConfiguration
+    static class PauseConfiguration {
+        @Bean
+        BookingPause bookingPause() {
+            return new BookingPause();
+        }
+    }
+
+    /**
+     * Holds the booking transaction inside the batch, after the given slot was claimed.
+     */
+    static class BookingPause {
+        private final CountDownLatch reached = new CountDownLatch(1);
+        private final AtomicReference<Long> slotId = new AtomicReference<>();
+        private volatile CountDownLatch resume;
+
+        void pauseAfter(Long slotId, CountDownLatch resume) {
+            this.resume = resume;
+            this.slotId.set(slotId);
+        }
+
+        @EventListener
+        void onSlotChanged(SlotChangedEvent event) throws InterruptedException {
+            if (event.type() != SlotChangeType.BOOKED || !slotId.compareAndSet(event.slotId(), null)) return;
+            reached.countDown();
+            resume.await(5, TimeUnit.SECONDS);
+        }
+    }
+}
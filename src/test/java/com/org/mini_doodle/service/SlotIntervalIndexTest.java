@@ -0,0 +1,90 @@
+package com.org.mini_doodle.service;
+
+import com.org.mini_doodle.domain.SlotStatus;
+import com.org.mini_doodle.event.SlotChangeType;
+import com.org.mini_doodle.event.SlotChangedEvent;
+import com.org.mini_doodle.repository.SlotRepository;
+import com.org.mini_doodle.repository.projection.SlotBounds;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SlotIntervalIndexTest {
+
+    @Mock
+    private SlotRepository slotRepository;
+
+    private SlotIntervalIndex slotIntervalIndex;
+
+    private OffsetDateTime nine;
+
+    @BeforeEach
+    void setup() {
+        nine = OffsetDateTime.parse("2025-08-18T09:00:00Z");
+        slotIntervalIndex = new SlotIntervalIndex(slotRepository, 100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void overlaps_ShouldReloadCalendar_AfterExpiry_ToSeeSlotsWrittenElsewhere() {
+        SlotIntervalIndex expiring = new SlotIntervalIndex(slotRepository, 100, Duration.ZERO);
+        when(slotRepository.findBoundsByCalendarId(10L))
+                .thenReturn(List.of())
+                .thenReturn(List.of(new SlotBounds(1L, nine, nine.plusMinutes(30))));
+
+        assertThat(expiring.overlaps(10L, nine, nine.plusMinutes(30), null)).isFalse();
+        assertThat(expiring.overlaps(10L, nine, nine.plusMinutes(30), null)).isTrue();
+        verify(slotRepository, times(2)).findBoundsByCalendarId(10L);
+    }
+
+    @Test
+    void overlaps_ShouldDetectOverlapsAndAllowAdjacentSlots() {
+        when(slotRepository.findBoundsByCalendarId(10L)).thenReturn(List.of(
+                new SlotBounds(1L, nine, nine.plusMinutes(30)),
+                new SlotBounds(2L, nine.plusHours(1), nine.plusHours(2))));
+
+        assertThat(slotIntervalIndex.overlaps(10L, nine.plusMinutes(15), nine.plusMinutes(45), null)).isTrue();
+        assertThat(slotIntervalIndex.overlaps(10L, nine.plusMinutes(30), nine.plusHours(1), null)).isFalse();
+        assertThat(slotIntervalIndex.overlaps(10L, nine.minusHours(1), nine.plusHours(3), null)).isTrue();
+        assertThat(slotIntervalIndex.overlaps(10L, nine.plusMinutes(90), nine.plusMinutes(100), 2L)).isFalse();
+        verify(slotRepository, times(1)).findBoundsByCalendarId(10L);
+    }
+
+    @Test
+    void overlaps_ShouldSeeLongSlotStartingEarlier() {
+        when(slotRepository.findBoundsByCalendarId(10L)).thenReturn(List.of(
+                new SlotBounds(1L, nine, nine.plusHours(8)),
+                new SlotBounds(2L, nine.plusHours(1), nine.plusHours(2))));
+
+        assertThat(slotIntervalIndex.overlaps(10L, nine.plusHours(5), nine.plusHours(6), null)).isTrue();
+    }
+
+    @Test
+    void onSlotChanged_ShouldKeepLoadedCalendarCurrent() {
+        when(slotRepository.findBoundsByCalendarId(10L)).thenReturn(List.of());
+        assertThat(slotIntervalIndex.overlaps(10L, nine, nine.plusHours(1), null)).isFalse();
+
+        slotIntervalIndex.onSlotChanged(new SlotChangedEvent(10L, 5L, SlotChangeType.CREATED,
+                nine, nine.plusMinutes(30), SlotStatus.FREE));
+        assertThat(slotIntervalIndex.overlaps(10L, nine, nine.plusHours(1), null)).isTrue();
+
+        slotIntervalIndex.onSlotChanged(new SlotChangedEvent(10L, 5L, SlotChangeType.MODIFIED,
+                nine.plusHours(2), nine.plusHours(3), SlotStatus.FREE));
+        assertThat(slotIntervalIndex.overlaps(10L, nine, nine.plusHours(1), null)).isFalse();
+        assertThat(slotIntervalIndex.overlaps(10L, nine.plusHours(2), nine.plusHours(3), null)).isTrue();
+
+        slotIntervalIndex.onSlotChanged(new SlotChangedEvent(10L, 5L, SlotChangeType.DELETED,
+                nine.plusHours(2), nine.plusHours(3), SlotStatus.FREE));
+        assertThat(slotIntervalIndex.overlaps(10L, nine.plusHours(2), nine.plusHours(3), null)).isFalse();
+        verify(slotRepository, times(1)).findBoundsByCalendarId(10L);
+    }
+}
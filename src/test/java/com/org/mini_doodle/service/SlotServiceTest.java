@@ -2,20 +2,44 @@ package com.org.mini_doodle.service;
 
 import com.org.mini_doodle.domain.*;
 import com.org.mini_doodle.dto.request.CreateSlotRequest;
+import com.org.mini_doodle.dto.request.RecurringSlotRequest;
+import com.org.mini_doodle.dto.response.SlotChangesResponse;
+import com.org.mini_doodle.dto.response.SlotResponse;
+import com.org.mini_doodle.dto.response.SlotScrollResponse;
+import com.org.mini_doodle.event.SlotChangeType;
+import com.org.mini_doodle.event.SlotChangedEvent;
 import com.org.mini_doodle.exception.NotFoundException;
 import com.org.mini_doodle.exception.OverlapConflictException;
+import com.org.mini_doodle.exception.OwnershipViolationException;
+import com.org.mini_doodle.observability.SchedulingMetrics;
+import com.org.mini_doodle.repository.SlotChangeRepository;
 import com.org.mini_doodle.repository.SlotRepository;
+import com.org.mini_doodle.repository.projection.ChangedSlot;
+import com.org.mini_doodle.repository.projection.SlotOwnership;
+import com.org.mini_doodle.repository.projection.SlotView;
+import com.org.mini_doodle.util.ChangeCursor;
+import com.org.mini_doodle.util.EpochTimes;
+import com.org.mini_doodle.util.SlotCursor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.*;
 
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.time.OffsetDateTime;
-import java.util.ArrayList;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -26,9 +50,24 @@ class SlotServiceTest {
     @Mock
     private SlotRepository slotRepository;
 
+    @Mock
+    private SlotChangeRepository slotChangeRepository;
+
     @Mock
     private UserService userService;
 
+    @Mock
+    private SlotIntervalIndex slotIntervalIndex;
+
+    @Mock
+    private SlotChangeSequence slotChangeSequence;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private SchedulingMetrics schedulingMetrics = new SchedulingMetrics(new SimpleMeterRegistry());
+
     @InjectMocks
     private SlotService slotService;
 
@@ -49,8 +88,8 @@ class SlotServiceTest {
         CreateSlotRequest req = new CreateSlotRequest(now, 30);
 
         when(userService.getPersonalCalendar(1L)).thenReturn(calendar);
-        when(slotRepository.findOverlapping(calendar, req.startTime(), req.startTime().plusMinutes(req.durationMinutes())))
-                .thenReturn(List.of());
+        when(slotIntervalIndex.overlaps(10L, req.startTime(), req.startTime().plusMinutes(req.durationMinutes()), null))
+                .thenReturn(false);
         when(slotRepository.save(any(Slot.class))).thenAnswer(inv -> {
             Slot s = inv.getArgument(0);
             s.setId(100L);
@@ -62,7 +101,10 @@ class SlotServiceTest {
         assertThat(slot.getId()).isEqualTo(100L);
         assertThat(slot.getStatus()).isEqualTo(SlotStatus.FREE);
         assertThat(slot.getStartTime()).isEqualTo(now);
-        verify(slotRepository).save(any(Slot.class));
+        var order = inOrder(slotRepository, slotChangeSequence);
+        order.verify(slotRepository).save(any(Slot.class));
+        order.verify(slotChangeSequence).recordInserts(10L, List.of(100L));
+        verify(eventPublisher).publishEvent(any(SlotChangedEvent.class));
     }
 
     @Test
@@ -70,7 +112,7 @@ class SlotServiceTest {
         CreateSlotRequest req = new CreateSlotRequest(now, 30);
 
         when(userService.getPersonalCalendar(1L)).thenReturn(calendar);
-        when(slotRepository.findOverlapping(any(), any(), any())).thenReturn(List.of(new Slot()));
+        when(slotIntervalIndex.overlaps(any(), any(), any(), any())).thenReturn(true);
 
         assertThatThrownBy(() -> slotService.createSlotForUser(1L, req))
                 .isInstanceOf(OverlapConflictException.class)
@@ -78,89 +120,356 @@ class SlotServiceTest {
     }
 
 
+    @Test
+    void createSlotForUser_ShouldMapExclusionViolationToConflict_InExclusionMode() {
+        SlotService exclusionService = new SlotService(slotRepository, slotChangeRepository, userService,
+                slotIntervalIndex, slotChangeSequence, eventPublisher, schedulingMetrics, SlotOverlapMode.EXCLUSION);
+        when(userService.getPersonalCalendar(1L)).thenReturn(calendar);
+        when(slotRepository.save(any(Slot.class))).thenAnswer(inv -> inv.getArgument(0));
+        doThrow(new DataIntegrityViolationException("could not execute statement",
+                new SQLException("conflicting key value violates exclusion constraint", "23P01")))
+                .when(slotRepository).flush();
+
+        assertThatThrownBy(() -> exclusionService.createSlotForUser(1L, new CreateSlotRequest(now, 30)))
+                .isInstanceOf(OverlapConflictException.class)
+                .hasMessageContaining("Overlapping slot exists");
+        verifyNoInteractions(slotIntervalIndex, eventPublisher);
+    }
+
+    @Test
+    void createRecurringSlotsForUser_ShouldExpandWeekdaysIntoBackToBackSlots() {
+        RecurringSlotRequest req = new RecurringSlotRequest(LocalDate.of(2025, 8, 15), LocalDate.of(2025, 8, 18),
+                Set.of(DayOfWeek.FRIDAY, DayOfWeek.MONDAY), LocalTime.of(9, 0), LocalTime.of(10, 15),
+                ZoneId.of("Europe/Berlin"), 30);
+
+        when(userService.getPersonalCalendar(1L)).thenReturn(calendar);
+        when(slotRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        List<Slot> slots = slotService.createRecurringSlotsForUser(1L, req);
+
+        assertThat(slots).hasSize(4);
+        assertThat(slots.get(0).getStartTime()).isEqualTo(OffsetDateTime.parse("2025-08-15T09:00:00+02:00"));
+        assertThat(slots.get(1).getEndTime()).isEqualTo(OffsetDateTime.parse("2025-08-15T10:00:00+02:00"));
+        assertThat(slots.get(2).getStartTime()).isEqualTo(OffsetDateTime.parse("2025-08-18T09:00:00+02:00"));
+        verify(slotRepository, times(1)).saveAll(anyList());
+        verify(eventPublisher, times(4)).publishEvent(any(SlotChangedEvent.class));
+    }
+
+    @Test
+    void createRecurringSlotsForUser_ShouldRejectWholeBatch_WhenAnySlotOverlaps() {
+        RecurringSlotRequest req = new RecurringSlotRequest(LocalDate.of(2025, 8, 18), LocalDate.of(2025, 8, 18),
+                Set.of(DayOfWeek.MONDAY), LocalTime.of(9, 0), LocalTime.of(11, 0), ZoneId.of("UTC"), 60);
+
+        when(userService.getPersonalCalendar(1L)).thenReturn(calendar);
+        when(slotIntervalIndex.overlaps(eq(10L), any(), any(), isNull())).thenReturn(false, true);
+
+        assertThatThrownBy(() -> slotService.createRecurringSlotsForUser(1L, req))
+                .isInstanceOf(OverlapConflictException.class)
+                .hasMessageContaining("1 of 2 requested slots overlap");
+        verify(slotRepository, never()).saveAll(anyList());
+    }
+
     @Test
     void querySlotsForUser_ShouldReturnPage() {
         PageRequest pageable = PageRequest.of(0, 10, Sort.by("startTime"));
-        Slot slot = Slot.builder().id(100L).calendar(calendar).startTime(now).endTime(now.plusMinutes(30)).status(SlotStatus.FREE).build();
+        SlotView slot = new SlotView(100L, SlotStatus.FREE, now, now.plusMinutes(30));
 
         when(userService.getPersonalCalendar(1L)).thenReturn(calendar);
-        when(slotRepository.findByCalendarAndStartTimeBetween(calendar, now, now.plusHours(1), pageable))
+        when(slotRepository.findViewsByCalendarId(10L, now, now.plusHours(1), pageable))
                 .thenReturn(new PageImpl<>(List.of(slot)));
 
-        Page<Slot> result = slotService.querySlotsForUser(1L, now, now.plusHours(1), null, pageable);
+        Page<SlotView> result = slotService.querySlotsForUser(1L, now, now.plusHours(1), null, pageable);
 
         assertThat(result).hasSize(1);
-        assertThat(result.getContent().get(0).getId()).isEqualTo(100L);
+        assertThat(result.getContent().get(0).id()).isEqualTo(100L);
     }
 
 
     @Test
-    void modifyTimes_ShouldUpdate_WhenValid() {
-        Slot slot = Slot.builder()
-                .id(100L).calendar(calendar)
-                .startTime(now).endTime(now.plusMinutes(30)).status(SlotStatus.FREE).build();
+    void scrollSlotsForUser_ShouldReturnContinuationToken_WhenMoreRowsExist() {
+        SlotView first = new SlotView(100L, SlotStatus.FREE, now, now.plusMinutes(30));
+        SlotView second = new SlotView(101L, SlotStatus.FREE, now.plusMinutes(30), now.plusMinutes(60));
+        SlotView third = new SlotView(102L, SlotStatus.FREE, now.plusMinutes(60), now.plusMinutes(90));
 
-        when(slotRepository.findById(100L)).thenReturn(Optional.of(slot));
-        when(slotRepository.findOverlapping(any(), any(), any())).thenReturn(new ArrayList<>());
-        when(slotRepository.save(slot)).thenReturn(slot);
+        when(userService.getPersonalCalendar(1L)).thenReturn(calendar);
+        when(slotRepository.findViewsAfter(10L, now, now.plusHours(2), now, Long.MIN_VALUE, Limit.of(3)))
+                .thenReturn(List.of(first, second, third));
 
-        Slot updated = slotService.modifyTimes(1L, 100L, now.plusMinutes(10), now.plusMinutes(40));
+        SlotScrollResponse page = slotService.scrollSlotsForUser(1L, now, now.plusHours(2), null, null, 2);
 
-        assertThat(updated.getStartTime()).isEqualTo(now.plusMinutes(10));
-        assertThat(updated.getEndTime()).isEqualTo(now.plusMinutes(40));
+        assertThat(page.items()).extracting(SlotResponse::id).containsExactly(100L, 101L);
+        assertThat(SlotCursor.decode(page.nextCursor()).id()).isEqualTo(101L);
     }
 
+    @Test
+    void scrollSlotsForUser_ShouldSeekFromCursor_AndEndWithoutToken() {
+        OffsetDateTime from = OffsetDateTime.parse("2025-08-18T09:00:00Z");
+        String cursor = new SlotCursor(EpochTimes.toMicros(from.plusMinutes(30)), 101L).encode();
+        SlotView last = new SlotView(102L, SlotStatus.BUSY, from.plusMinutes(60), from.plusMinutes(90));
+
+        when(userService.getPersonalCalendar(1L)).thenReturn(calendar);
+        when(slotRepository.findViewsAfterWithStatus(10L, from, from.plusHours(2), SlotStatus.BUSY,
+                from.plusMinutes(30), 101L, Limit.of(3))).thenReturn(List.of(last));
+
+        SlotScrollResponse page = slotService.scrollSlotsForUser(1L, from, from.plusHours(2), SlotStatus.BUSY, cursor, 2);
+
+        assertThat(page.items()).extracting(SlotResponse::id).containsExactly(102L);
+        assertThat(page.nextCursor()).isNull();
+    }
 
     @Test
-    void markStatus_ShouldUpdateStatus_WhenFree() {
-        Slot slot = Slot.builder()
-                .id(100L).calendar(calendar)
-                .startTime(now).endTime(now.plusMinutes(30))
-                .status(SlotStatus.FREE)
-                .build();
+    void scrollSlotsForUser_ShouldRejectMalformedCursor() {
+        when(userService.getPersonalCalendar(1L)).thenReturn(calendar);
+
+        assertThatThrownBy(() -> slotService.scrollSlotsForUser(1L, now, now.plusHours(1), null, "not-a-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
 
-        when(slotRepository.findById(100L)).thenReturn(Optional.of(slot));
-        when(slotRepository.save(slot)).thenReturn(slot);
+    @Test
+    void calendarIdForExport_ShouldRejectReversedRange_BeforeResolvingCalendar() {
+        assertThatThrownBy(() -> slotService.calendarIdForExport(1L, now.plusHours(1), now))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(userService, slotRepository);
+    }
 
-        Slot updated = slotService.markStatus(1L, 100L, SlotStatus.BUSY);
+    @Test
+    void calendarIdForExport_ShouldThrowNotFound_WhenUserHasNoCalendar() {
+        when(userService.findPersonalCalendarId(1L)).thenReturn(Optional.empty());
 
-        assertThat(updated.getStatus()).isEqualTo(SlotStatus.BUSY);
+        assertThatThrownBy(() -> slotService.calendarIdForExport(1L, now, now.plusHours(1)))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageContaining("Calendar not found for user: 1");
     }
 
     @Test
-    void markStatus_ShouldThrow_WhenMarkFreeButMeetingAttached() {
-        Meeting meeting = Meeting.builder().id(200L).title("Sync").build();
-        Slot slot = Slot.builder()
-                .id(100L).calendar(calendar)
-                .meeting(meeting)
-                .status(SlotStatus.BUSY)
-                .startTime(now).endTime(now.plusMinutes(30)).build();
+    void modifyTimes_ShouldUpdateWithOneConditionalStatement_WhenOwned() {
+        SlotView moved = new SlotView(100L, SlotStatus.FREE, now.plusMinutes(10), now.plusMinutes(40));
+        when(userService.findPersonalCalendarId(1L)).thenReturn(Optional.of(10L));
+        when(slotRepository.updateTimesIfOwned(100L, 10L, now.plusMinutes(10), now.plusMinutes(40))).thenReturn(1);
+        when(slotIntervalIndex.overlaps(10L, now.plusMinutes(10), now.plusMinutes(40), 100L)).thenReturn(false);
+        when(slotRepository.findViewById(100L)).thenReturn(Optional.of(moved));
+
+        SlotView updated = slotService.modifyTimes(1L, 100L, now.plusMinutes(10), now.plusMinutes(40));
+
+        assertThat(updated).isEqualTo(moved);
+        var order = inOrder(slotChangeSequence, slotRepository);
+        order.verify(slotRepository).updateTimesIfOwned(100L, 10L, now.plusMinutes(10), now.plusMinutes(40));
+        order.verify(slotChangeSequence).recordUpdate(10L, 100L);
+        verify(slotRepository, never()).findOwnershipById(any());
+        verify(eventPublisher).publishEvent(SlotChangedEvent.of(10L, moved, SlotChangeType.MODIFIED));
+    }
 
-        when(slotRepository.findById(100L)).thenReturn(Optional.of(slot));
+    @Test
+    void modifyTimes_ShouldThrowForbidden_WhenSlotBelongsToAnotherCalendar() {
+        when(userService.findPersonalCalendarId(1L)).thenReturn(Optional.of(10L));
+        when(slotRepository.updateTimesIfOwned(100L, 10L, now, now.plusMinutes(30))).thenReturn(0);
+        when(slotRepository.findOwnershipById(100L)).thenReturn(Optional.of(new SlotOwnership(11L, null)));
+
+        assertThatThrownBy(() -> slotService.modifyTimes(1L, 100L, now, now.plusMinutes(30)))
+                .isInstanceOf(OwnershipViolationException.class);
+        verify(slotIntervalIndex, never()).overlaps(any(), any(), any(), any());
+        verifyNoInteractions(slotChangeSequence);
+    }
+
+    @Test
+    void modifyTimes_ShouldThrowConflict_WhenMovedOntoAnotherSlot() {
+        when(userService.findPersonalCalendarId(1L)).thenReturn(Optional.of(10L));
+        when(slotRepository.updateTimesIfOwned(100L, 10L, now, now.plusMinutes(30))).thenReturn(1);
+        when(slotIntervalIndex.overlaps(10L, now, now.plusMinutes(30), 100L)).thenReturn(true);
+
+        assertThatThrownBy(() -> slotService.modifyTimes(1L, 100L, now, now.plusMinutes(30)))
+                .isInstanceOf(OverlapConflictException.class)
+                .hasMessageContaining("Overlapping slot exists");
+        verify(eventPublisher, never()).publishEvent(any());
+        verifyNoInteractions(slotChangeSequence);
+    }
+
+    @Test
+    void markStatus_ShouldUpdateStatus_WhenFree() {
+        SlotView busy = new SlotView(100L, SlotStatus.BUSY, now, now.plusMinutes(30));
+        when(userService.findPersonalCalendarId(1L)).thenReturn(Optional.of(10L));
+        when(slotRepository.updateStatusIfOwned(100L, 10L, SlotStatus.BUSY)).thenReturn(1);
+        when(slotRepository.findViewById(100L)).thenReturn(Optional.of(busy));
+
+        SlotView updated = slotService.markStatus(1L, 100L, SlotStatus.BUSY);
+
+        assertThat(updated.status()).isEqualTo(SlotStatus.BUSY);
+        verify(slotChangeSequence).recordUpdate(10L, 100L);
+        verify(eventPublisher).publishEvent(SlotChangedEvent.of(10L, busy, SlotChangeType.STATUS_CHANGED));
+    }
+
+    @Test
+    void markStatus_ShouldThrow_WhenMarkFreeButMeetingAttached() {
+        when(userService.findPersonalCalendarId(1L)).thenReturn(Optional.of(10L));
+        when(slotRepository.updateStatusIfOwned(100L, 10L, SlotStatus.FREE)).thenReturn(0);
+        when(slotRepository.findOwnershipById(100L)).thenReturn(Optional.of(new SlotOwnership(10L, 200L)));
 
         assertThatThrownBy(() -> slotService.markStatus(1L, 100L, SlotStatus.FREE))
                 .isInstanceOf(OverlapConflictException.class)
                 .hasMessageContaining("slot has a meeting");
+        verifyNoInteractions(slotChangeSequence);
     }
 
+    @Test
+    void markStatus_ShouldThrowNotFound_WhenUserHasNoCalendarAndSlotMissing() {
+        when(userService.findPersonalCalendarId(1L)).thenReturn(Optional.empty());
+        when(slotRepository.findOwnershipById(100L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> slotService.markStatus(1L, 100L, SlotStatus.BUSY))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageContaining("Slot not found");
+        verify(slotRepository, never()).updateStatusIfOwned(any(), any(), any());
+        verifyNoInteractions(slotChangeSequence);
+    }
 
     @Test
-    void deleteSlot_ShouldDelete_WhenValid() {
-        Slot slot = Slot.builder().id(100L).calendar(calendar).build();
+    void deleteSlot_ShouldDeleteWithOneConditionalStatement_WhenUnbooked() {
+        when(userService.findPersonalCalendarId(1L)).thenReturn(Optional.of(10L));
+        when(slotRepository.deleteUnbookedIfOwned(100L, 10L)).thenReturn(1);
 
-        when(slotRepository.findById(100L)).thenReturn(Optional.of(slot));
+        slotService.deleteSlot(1L, 100L);
+
+        verify(slotRepository, never()).deleteById(any());
+        var order = inOrder(slotRepository, slotChangeSequence);
+        order.verify(slotRepository).deleteUnbookedIfOwned(100L, 10L);
+        order.verify(slotChangeSequence).recordDelete(10L, 100L);
+        verify(eventPublisher).publishEvent(SlotChangedEvent.deleted(10L, 100L));
+    }
+
+    @Test
+    void deleteSlot_ShouldDeleteThroughEntity_WhenBooked() {
+        when(userService.findPersonalCalendarId(1L)).thenReturn(Optional.of(10L));
+        when(slotRepository.deleteUnbookedIfOwned(100L, 10L)).thenReturn(0);
+        when(slotRepository.findOwnershipById(100L)).thenReturn(Optional.of(new SlotOwnership(10L, 200L)));
 
         slotService.deleteSlot(1L, 100L);
 
         verify(slotRepository).deleteById(100L);
+        verify(slotChangeSequence).recordDelete(10L, 100L);
     }
 
     @Test
     void deleteSlot_ShouldThrow_WhenNotFound() {
-        when(slotRepository.findById(999L)).thenReturn(Optional.empty());
+        when(userService.findPersonalCalendarId(1L)).thenReturn(Optional.of(10L));
+        when(slotRepository.deleteUnbookedIfOwned(999L, 10L)).thenReturn(0);
+        when(slotRepository.findOwnershipById(999L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> slotService.deleteSlot(1L, 999L))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("Slot not found");
+        verifyNoInteractions(slotChangeSequence);
+    }
+
+    @Test
+    void changesForUser_ShouldReturnChangesAndDeletions_UpToTheCurrentSequence() {
+        when(userService.findPersonalCalendarId(1L)).thenReturn(Optional.of(10L));
+        when(slotChangeSequence.current(10L)).thenReturn(9L);
+        when(slotChangeRepository.findChangesAfter(10L, 4L, Long.MAX_VALUE, 9L, Limit.of(11)))
+                .thenReturn(List.of(changed(100L, 5L), deleted(102L, 6L), changed(101L, 8L)));
+
+        SlotChangesResponse changes = slotService.changesForUser(1L, 4L, null, 10);
+
+        assertThat(changes.changed()).extracting(SlotResponse::id).containsExactly(100L, 101L);
+        assertThat(changes.deleted()).containsExactly(102L);
+        assertThat(changes.nextSince()).isEqualTo(9L);
+        assertThat(changes.nextCursor()).isNull();
+        assertThat(changes.hasMore()).isFalse();
+    }
+
+    @Test
+    void changesForUser_ShouldPageSnapshotBySlotId_OnInitialSync() {
+        when(userService.findPersonalCalendarId(1L)).thenReturn(Optional.of(10L));
+        when(slotChangeSequence.current(10L)).thenReturn(3L);
+        when(slotRepository.findViewsByIdAfter(10L, Long.MIN_VALUE, Limit.of(3)))
+                .thenReturn(List.of(view(100L), view(101L), view(102L)));
+
+        SlotChangesResponse changes = slotService.changesForUser(1L, null, null, 2);
+
+        assertThat(changes.changed()).extracting(SlotResponse::id).containsExactly(100L, 101L);
+        assertThat(changes.nextSince()).isNull();
+        assertThat(ChangeCursor.decode(changes.nextCursor())).isEqualTo(new ChangeCursor(true, 3L, 101L));
+        assertThat(changes.hasMore()).isTrue();
+        verifyNoInteractions(slotChangeRepository);
+    }
+
+    @Test
+    void changesForUser_ShouldEndSnapshotAtTheSequenceItStartedAt() {
+        when(userService.findPersonalCalendarId(1L)).thenReturn(Optional.of(10L));
+        when(slotRepository.findViewsByIdAfter(10L, 101L, Limit.of(3))).thenReturn(List.of(view(102L)));
+
+        SlotChangesResponse changes = slotService.changesForUser(1L, null, new ChangeCursor(true, 3L, 101L).encode(), 2);
+
+        assertThat(changes.changed()).extracting(SlotResponse::id).containsExactly(102L);
+        assertThat(changes.nextSince()).isEqualTo(3L);
+        assertThat(changes.nextCursor()).isNull();
+        assertThat(changes.hasMore()).isFalse();
+        verifyNoInteractions(slotChangeSequence);
+    }
+
+    @Test
+    void changesForUser_ShouldReturnSince_WhenPageEndsOnAChangeSetBoundary() {
+        when(userService.findPersonalCalendarId(1L)).thenReturn(Optional.of(10L));
+        when(slotChangeSequence.current(10L)).thenReturn(9L);
+        when(slotChangeRepository.findChangesAfter(10L, 0L, Long.MAX_VALUE, 9L, Limit.of(3)))
+                .thenReturn(List.of(changed(100L, 1L), changed(101L, 1L), changed(102L, 2L)));
+
+        SlotChangesResponse changes = slotService.changesForUser(1L, 0L, null, 2);
+
+        assertThat(changes.changed()).extracting(SlotResponse::id).containsExactly(100L, 101L);
+        assertThat(changes.nextSince()).isEqualTo(1L);
+        assertThat(changes.nextCursor()).isNull();
+        assertThat(changes.hasMore()).isTrue();
+    }
+
+    @Test
+    void changesForUser_ShouldSplitAChangeSetLargerThanLimitWithACursor() {
+        when(userService.findPersonalCalendarId(1L)).thenReturn(Optional.of(10L));
+        when(slotChangeSequence.current(10L)).thenReturn(9L);
+        when(slotChangeRepository.findChangesAfter(10L, 0L, Long.MAX_VALUE, 9L, Limit.of(3)))
+                .thenReturn(List.of(changed(100L, 4L), deleted(101L, 4L), changed(102L, 4L)));
+        when(slotChangeRepository.findChangesAfter(10L, 4L, 101L, 9L, Limit.of(3)))
+                .thenReturn(List.of(changed(102L, 4L)));
+
+        SlotChangesResponse first = slotService.changesForUser(1L, 0L, null, 2);
+        SlotChangesResponse second = slotService.changesForUser(1L, null, first.nextCursor(), 2);
+
+        assertThat(first.changed()).extracting(SlotResponse::id).containsExactly(100L);
+        assertThat(first.deleted()).containsExactly(101L);
+        assertThat(first.nextSince()).isNull();
+        assertThat(first.hasMore()).isTrue();
+        assertThat(second.changed()).extracting(SlotResponse::id).containsExactly(102L);
+        assertThat(second.nextSince()).isEqualTo(9L);
+        assertThat(second.hasMore()).isFalse();
+    }
+
+    @Test
+    void changesForUser_ShouldRejectSinceAheadOfTheCalendar() {
+        when(userService.findPersonalCalendarId(1L)).thenReturn(Optional.of(10L));
+        when(slotChangeSequence.current(10L)).thenReturn(3L);
+
+        assertThatThrownBy(() -> slotService.changesForUser(1L, 4L, null, 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("ahead of the latest change 3");
+    }
+
+    @Test
+    void changesForUser_ShouldRejectSinceTogetherWithCursor() {
+        assertThatThrownBy(() -> slotService.changesForUser(1L, 4L, new ChangeCursor(false, 4L, 100L).encode(), 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("either since or cursor");
+    }
+
+    private ChangedSlot changed(Long id, long changeSeq) {
+        return new ChangedSlot(id, SlotStatus.FREE, now, now.plusMinutes(30), changeSeq);
+    }
+
+    private ChangedSlot deleted(Long id, long changeSeq) {
+        return new ChangedSlot(id, null, null, null, changeSeq);
+    }
+
+    private SlotView view(Long id) {
+        return new SlotView(id, SlotStatus.FREE, now, now.plusMinutes(30));
     }
 }
+
@@ -2,6 +2,7 @@ package com.org.mini_doodle.service;
 
 import com.org.mini_doodle.domain.Calendar;
 import com.org.mini_doodle.domain.User;
+import com.org.mini_doodle.event.CalendarCreatedEvent;
 import com.org.mini_doodle.repository.CalendarRepository;
 import com.org.mini_doodle.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,6 +10,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Optional;
 
@@ -25,6 +27,12 @@ class UserServiceTest {
     @Mock
     private CalendarRepository calendarRepository;
 
+    @Mock
+    private CalendarCache calendarCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UserService userService;
 
@@ -39,7 +47,11 @@ class UserServiceTest {
         User mockUser = User.builder().id(1L).email("francy@example.com").name("Francy").build();
         when(userRepository.save(any(User.class))).thenReturn(mockUser);
         when(calendarRepository.save(any(Calendar.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+                .thenAnswer(invocation -> {
+                    Calendar calendar = invocation.getArgument(0);
+                    calendar.setId(100L);
+                    return calendar;
+                });
 
         // Act
         User result = userService.createUser("francy@example.com", "Francy");
@@ -49,6 +61,7 @@ class UserServiceTest {
         assertThat(result.getEmail()).isEqualTo("francy@example.com");
         verify(userRepository, times(1)).save(any(User.class));
         verify(calendarRepository, times(1)).save(any(Calendar.class));
+        verify(eventPublisher).publishEvent(new CalendarCreatedEvent(1L, 100L));
     }
 
     @Test
@@ -56,7 +69,8 @@ class UserServiceTest {
         // Arrange
         User mockUser = User.builder().id(1L).email("subin@example.com").name("Subin").build();
         Calendar mockCalendar = Calendar.builder().id(100L).owner(mockUser).name("Personal").build();
-        when(calendarRepository.findByOwnerId(1L)).thenReturn(Optional.of(mockCalendar));
+        when(calendarCache.findCalendarId(1L)).thenReturn(Optional.of(100L));
+        when(calendarRepository.getReferenceById(100L)).thenReturn(mockCalendar);
 
         // Act
         Calendar result = userService.getPersonalCalendar(1L);
@@ -69,7 +83,7 @@ class UserServiceTest {
     @Test
     void getPersonalCalendar_ShouldThrow_WhenNotExists() {
         // Arrange
-        when(calendarRepository.findByOwnerId(99L)).thenReturn(Optional.empty());
+        when(calendarCache.findCalendarId(99L)).thenReturn(Optional.empty());
 
         // Act + Assert
         assertThatThrownBy(() -> userService.getPersonalCalendar(99L))
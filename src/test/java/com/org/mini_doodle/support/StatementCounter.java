@@ -0,0 +1,35 @@
+package com.org.mini_doodle.support;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.function.ThrowingSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the JDBC statements Hibernate prepares while an action runs, read from the session factory statistics
+ * ({@code hibernate.generate_statistics=true}). A JDBC batch counts once. Statistics are global, so actions must
+ * not overlap with other database work.
+ */
+public final class StatementCounter {
+
+    private final Statistics statistics;
+
+    public StatementCounter(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            throw new IllegalStateException("Set spring.jpa.properties.hibernate.generate_statistics=true");
+        }
+    }
+
+    public <T> T assertAtMost(long budget, String description, ThrowingSupplier<T> action) throws Throwable {
+        statistics.clear();
+        T result = action.get();
+        long prepared = statistics.getPrepareStatementCount();
+        assertThat(prepared)
+                .as("%s prepared %d statements, budget is %d", description, prepared, budget)
+                .isLessThanOrEqualTo(budget);
+        return result;
+    }
+}
@@ -0,0 +1,70 @@
+package com.org.mini_doodle.util;
+
+import com.org.mini_doodle.domain.TimeInterval;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EpochIntervalsTest {
+
+    @Test
+    void sortAndMerge_ShouldCoalesceOverlappingAndTouchingIntervals() {
+        EpochIntervals intervals = new EpochIntervals(4);
+        intervals.add(50, 60);
+        intervals.add(10, 20);
+        intervals.add(20, 30);
+        intervals.add(15, 25);
+        intervals.add(70, 80);
+
+        intervals.sort().merge();
+
+        assertThat(intervals.size()).isEqualTo(3);
+        assertThat(intervals.start(0)).isEqualTo(10);
+        assertThat(intervals.end(0)).isEqualTo(30);
+        assertThat(intervals.start(1)).isEqualTo(50);
+        assertThat(intervals.end(2)).isEqualTo(80);
+    }
+
+    @Test
+    void sort_ShouldOrderLargeUnsortedInput() {
+        EpochIntervals intervals = new EpochIntervals(1);
+        for (int i = 999; i >= 0; i--) {
+            intervals.add(i * 10L, i * 10L + 5);
+        }
+
+        intervals.sort();
+
+        for (int i = 1; i < intervals.size(); i++) {
+            assertThat(intervals.start(i)).isGreaterThan(intervals.start(i - 1));
+        }
+    }
+
+    @Test
+    void complementInto_ShouldReturnGapsClippedToRange() {
+        EpochIntervals busy = new EpochIntervals(2);
+        busy.add(0, 15);
+        busy.add(40, 60);
+        busy.add(90, 120);
+
+        EpochIntervals free = busy.complementInto(10, 100, new EpochIntervals(4));
+
+        assertThat(free.size()).isEqualTo(2);
+        assertThat(free.start(0)).isEqualTo(15);
+        assertThat(free.end(0)).isEqualTo(40);
+        assertThat(free.start(1)).isEqualTo(60);
+        assertThat(free.end(1)).isEqualTo(90);
+    }
+
+    @Test
+    void toTimeIntervals_ShouldRoundTripMicros() {
+        OffsetDateTime start = OffsetDateTime.parse("2025-08-18T10:00:00.123456+02:00");
+        EpochIntervals intervals = new EpochIntervals(1);
+        intervals.add(EpochTimes.toMicros(start), EpochTimes.toMicros(start.plusHours(1)));
+
+        assertThat(intervals.toTimeIntervals(ZoneOffset.ofHours(2)))
+                .containsExactly(new TimeInterval(start, start.plusHours(1)));
+    }
+}